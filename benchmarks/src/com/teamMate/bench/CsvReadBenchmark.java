@@ -0,0 +1,50 @@
+package com.teamMate.bench;
+
+import com.teamMate.io.CSVHandler;
+import com.teamMate.model.Participant;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** CSVHandler ingestion for both supported column layouts. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvReadBenchmark {
+
+    @Param({"8", "11"})
+    public int columns;
+
+    @Param({"100000"})
+    public int rows;
+
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void writeInput() throws IOException {
+        csv = SyntheticPool.writeCsv(rows, columns, SyntheticPool.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public List<Participant> readParticipants() throws IOException {
+        return CSVHandler.readParticipants(csv);
+    }
+
+    @Benchmark
+    public long streamParticipants(Blackhole bh) throws IOException {
+        return CSVHandler.streamParticipants(csv, bh::consume);
+    }
+}
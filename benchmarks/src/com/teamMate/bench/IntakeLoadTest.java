@@ -0,0 +1,197 @@
+package com.teamMate.bench;
+
+import com.teamMate.core.ParticipantRegistry;
+import com.teamMate.io.ParticipantJournal;
+import com.teamMate.main.IntakeServer;
+import com.teamMate.metrics.Histogram;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for the survey intake endpoint. Each of {@code --concurrency} virtual threads
+ * holds one keep-alive connection and posts surveys with unique ids and emails back to back
+ * until {@code --requests} have been sent; then throughput, latency percentiles and the status
+ * codes seen are printed (-1 counts connection failures).
+ *
+ * With {@code --self} it starts an IntakeServer in this JVM (optionally on a journal) and checks
+ * afterwards that the registry holds exactly one participant per 201 answer.
+ *
+ *   java -cp target/benchmarks.jar com.teamMate.bench.IntakeLoadTest --self --requests 200000
+ *   java -cp target/benchmarks.jar com.teamMate.bench.IntakeLoadTest --url http://host:8080/survey
+ */
+public class IntakeLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080/survey";
+        int requests = 100_000;
+        int concurrency = 256;
+        boolean self = false;
+        String journalDir = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url": url = args[++i]; break;
+                case "--requests": requests = Integer.parseInt(args[++i]); break;
+                case "--concurrency": concurrency = Integer.parseInt(args[++i]); break;
+                case "--journal": journalDir = args[++i]; break;
+                case "--self": self = true; break;
+                default:
+                    System.err.println("Usage: [--url u | --self [--journal dir]] [--requests n] [--concurrency c]");
+                    return;
+            }
+        }
+
+        ParticipantRegistry registry = null;
+        ParticipantJournal journal = null;
+        IntakeServer server = null;
+        if (self) {
+            registry = new ParticipantRegistry();
+            if (journalDir != null) journal = ParticipantJournal.open(Paths.get(journalDir), registry);
+            server = IntakeServer.start(0, registry, journal);
+            url = "http://localhost:" + server.port() + "/survey";
+        }
+        int before = registry == null ? 0 : registry.size();
+
+        URI target = URI.create(url);
+        // unique per run so a remote server with earlier data still answers 201
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        // a short warm-up so class loading and JIT do not land in the measurement
+        int warmup = Math.min(2_000, requests / 10);
+        Map<Integer, LongAdder> warmupStatuses = new ConcurrentHashMap<>();
+        fire(target, run + "w", warmup, concurrency, new Histogram(), warmupStatuses);
+
+        Histogram latency = new Histogram();
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        fire(target, run, requests, concurrency, latency, statuses);
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d requests, %d concurrent: %.0f req/s in %.2f s%n", requests, concurrency, requests / secs, secs);
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latency.percentile(0.5) / 1e6, latency.percentile(0.99) / 1e6, latency.max() / 1e6);
+        System.out.println("status " + statuses);
+
+        if (self) {
+            server.close();
+            if (journal != null) journal.close();
+            long expected = before + created(warmupStatuses) + created(statuses);
+            System.out.println("registry " + registry.size() + " participants, expected " + expected
+                    + (registry.size() == expected ? " (ok)" : " (MISMATCH)"));
+        }
+    }
+
+    private static long created(Map<Integer, LongAdder> statuses) {
+        LongAdder n = statuses.get(201);
+        return n == null ? 0 : n.sum();
+    }
+
+    private static void fire(URI target, String run, int requests, int concurrency,
+                             Histogram latency, Map<Integer, LongAdder> statuses) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        for (int w = 0; w < concurrency; w++) {
+            workers.submit(() -> {
+                Random rnd = new Random();
+                Connection conn = null;
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    long t0 = System.nanoTime();
+                    int status;
+                    try {
+                        if (conn == null) conn = new Connection(target);
+                        status = conn.post(survey(run, i, rnd));
+                    } catch (IOException e) {
+                        status = -1;
+                        if (conn != null) conn.close();
+                        conn = null;
+                    }
+                    latency.record(System.nanoTime() - t0);
+                    statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                }
+                if (conn != null) conn.close();
+                return null;
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    /**
+     * One keep-alive HTTP/1.1 connection. Hand-rolled rather than java.net.http.HttpClient, whose
+     * per-request overhead is several times the server's and would make this measure the client.
+     */
+    private static class Connection {
+        private final Socket socket;
+        private final OutputStream out;
+        private final InputStream in;
+        private final byte[] head;
+        private final StringBuilder line = new StringBuilder();
+
+        Connection(URI target) throws IOException {
+            socket = new Socket(target.getHost(), target.getPort() < 0 ? 80 : target.getPort());
+            socket.setTcpNoDelay(true);
+            out = new BufferedOutputStream(socket.getOutputStream());
+            in = new BufferedInputStream(socket.getInputStream());
+            head = ("POST " + target.getRawPath() + " HTTP/1.1\r\nHost: " + target.getHost()
+                    + "\r\nContent-Type: application/x-www-form-urlencoded\r\nContent-Length: ")
+                    .getBytes(StandardCharsets.US_ASCII);
+        }
+
+        /** Sends the form and returns the response status; the body is read and dropped. */
+        int post(String form) throws IOException {
+            byte[] body = form.getBytes(StandardCharsets.UTF_8);
+            out.write(head);
+            out.write((body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(body);
+            out.flush();
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            int length = 0;
+            String l;
+            while (!(l = readLine()).isEmpty()) {
+                if (l.regionMatches(true, 0, "Content-Length:", 0, 15)) length = Integer.parseInt(l.substring(15).trim());
+            }
+            in.skipNBytes(length);
+            return status;
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c < 0) throw new EOFException();
+                if (c != '\r') line.append((char) c);
+            }
+            return line.toString();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static String survey(String run, int i, Random rnd) {
+        StringBuilder sb = new StringBuilder(160)
+                .append("id=L").append(run).append('-').append(i)
+                .append("&name=Load+Tester+").append(i)
+                .append("&email=load").append(run).append('.').append(i).append("%40university.edu")
+                .append("&game=Valorant&role=Strategist&skill=").append(1 + rnd.nextInt(10));
+        for (int q = 1; q <= 5; q++) sb.append("&q").append(q).append('=').append(1 + rnd.nextInt(5));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.teamMate.bench;
+
+import com.teamMate.core.PersonalityClassifier;
+import com.teamMate.io.SyntheticDataGenerator;
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.RoleType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded synthetic inputs so every benchmark run sees identical data.
+ */
+final class SyntheticPool {
+
+    static final long SEED = 20240601L;
+
+    private static final String[] GAMES = {GameType.VALORANT, GameType.DOTA, GameType.FIFA,
+            GameType.BASKETBALL, GameType.BADMINTON, GameType.CHESS, GameType.CS_GO};
+    private static final String[] ROLES = {RoleType.STRATEGIST, RoleType.ATTACKER, RoleType.DEFENDER,
+            RoleType.SUPPORTER, RoleType.COORDINATOR};
+
+    private SyntheticPool() { }
+
+    static List<Participant> participants(int n, long seed) {
+        Random rnd = new Random(seed);
+        List<Participant> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int score = PersonalityClassifier.scaledScore(q(rnd), q(rnd), q(rnd), q(rnd), q(rnd));
+            out.add(new Participant(id(i), "Participant_" + i, "user" + i + "@university.edu",
+                    GAMES[rnd.nextInt(GAMES.length)], ROLES[rnd.nextInt(ROLES.length)],
+                    1 + rnd.nextInt(10), score, PersonalityClassifier.classify(score)));
+        }
+        return out;
+    }
+
+    /** Writes an 8-column (score/type) or 11-column (Q1..Q5) participant CSV with a header row. */
+    static Path writeCsv(int rows, int columns, long seed) throws IOException {
+        Path file = Files.createTempFile("teammate-bench-" + columns + "col-", ".csv");
+        SyntheticDataGenerator.generate(file, new SyntheticDataGenerator.Config()
+                .setRows(rows).setColumns(columns).setSeed(seed));
+        return file;
+    }
+
+    private static String id(int i) {
+        return "P" + i;
+    }
+
+    private static int q(Random rnd) {
+        return 1 + rnd.nextInt(5);
+    }
+}
@@ -0,0 +1,40 @@
+package com.teamMate.bench;
+
+import com.teamMate.core.Team;
+import com.teamMate.core.TeamBuilder;
+import com.teamMate.model.Participant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** TeamBuilder.buildTeams across pool sizes, team sizes and game caps. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TeamFormationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int poolSize;
+
+    @Param({"5", "10", "50"})
+    public int teamSize;
+
+    @Param({"1", "2", "3"})
+    public int gameCap;
+
+    private List<Participant> pool;
+
+    @Setup(Level.Trial)
+    public void createPool() {
+        pool = SyntheticPool.participants(poolSize, SyntheticPool.SEED);
+    }
+
+    @Benchmark
+    public List<Team> buildTeams() {
+        return new TeamBuilder(pool, teamSize, gameCap, SyntheticPool.SEED).buildTeams();
+    }
+}
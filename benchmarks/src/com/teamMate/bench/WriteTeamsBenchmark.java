@@ -0,0 +1,45 @@
+package com.teamMate.bench;
+
+import com.teamMate.core.Team;
+import com.teamMate.core.TeamBuilder;
+import com.teamMate.io.CSVHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** CSVHandler.writeTeams export of a formed team list. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WriteTeamsBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int poolSize;
+
+    private List<Team> teams;
+    private Path out;
+
+    @Setup(Level.Trial)
+    public void formTeams() throws IOException {
+        teams = new TeamBuilder(SyntheticPool.participants(poolSize, SyntheticPool.SEED), 5, 2, SyntheticPool.SEED).buildTeams();
+        out = Files.createTempFile("teammate-bench-teams-", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteOutput() throws IOException {
+        Files.deleteIfExists(out);
+    }
+
+    @Benchmark
+    public Path writeTeams() throws IOException {
+        CSVHandler.writeTeams(out, teams);
+        return out;
+    }
+}
@@ -0,0 +1,98 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+import java.util.Arrays;
+
+/**
+ * Weighted TeamConstraints consulted by TeamBuilder, RoleDiversityEnforcer, TeamMaintainer
+ * and TeamOptimizer. A team's penalty is the weighted sum of its violations.
+ * Hard rules additionally gate placements: the builder, the diversity swaps and late joiners
+ * never make a hard violation worse (the optimizer still scores them by weight, so it can
+ * climb out of a start that already breaks one).
+ *
+ * {@link #standard} is the built-in objective: game cap (hard), role diversity and
+ * personality mix; custom rules are appended with {@link #hard} or {@link #soft}.
+ */
+public class ConstraintSet {
+
+    private TeamConstraint[] rules = new TeamConstraint[0];
+    private double[] weights = new double[0];
+    private boolean[] hard = new boolean[0];
+
+    /** The rules TeamOptimizer.evaluate scores: cap, 3 distinct roles, 1 Leader / 1-2 Thinkers. */
+    public static ConstraintSet standard(int maxSameGamePerTeam) {
+        return standard(new GameCapConstraint(maxSameGamePerTeam));
+    }
+
+    /** The standard rules with a custom game cap rule (e.g. per-game caps). */
+    public static ConstraintSet standard(GameCapConstraint cap) {
+        return new ConstraintSet()
+                .hard(cap, TeamOptimizer.CAP_WEIGHT)
+                .soft(new RoleDiversityConstraint(RoleDiversityEnforcer.TARGET_ROLES), TeamOptimizer.ROLE_WEIGHT)
+                .soft(new PersonalityMixConstraint(), TeamOptimizer.PERSONALITY_WEIGHT);
+    }
+
+    public ConstraintSet hard(TeamConstraint rule, double weight) {
+        return add(rule, weight, true);
+    }
+
+    public ConstraintSet soft(TeamConstraint rule, double weight) {
+        return add(rule, weight, false);
+    }
+
+    private ConstraintSet add(TeamConstraint rule, double weight, boolean isHard) {
+        int n = rules.length;
+        rules = Arrays.copyOf(rules, n + 1);
+        weights = Arrays.copyOf(weights, n + 1);
+        hard = Arrays.copyOf(hard, n + 1);
+        rules[n] = rule;
+        weights[n] = weight;
+        hard[n] = isHard;
+        return this;
+    }
+
+    /** True if {@code p} can join {@code t} without worsening a hard rule. */
+    public boolean allowsAdd(Team t, Participant p) {
+        for (int i = 0; i < rules.length; i++) {
+            if (hard[i] && rules[i].addDelta(t, p) > 0) return false;
+        }
+        return true;
+    }
+
+    /** True if {@code pa} (in a) and {@code pb} (in b) can trade teams without worsening a hard rule. */
+    public boolean allowsSwap(Team a, Team b, Participant pa, Participant pb) {
+        for (int i = 0; i < rules.length; i++) {
+            if (hard[i] && (rules[i].replaceDelta(a, pa, pb) > 0 || rules[i].replaceDelta(b, pb, pa) > 0)) return false;
+        }
+        return true;
+    }
+
+    /** Weighted violations of {@code t}, from scratch. */
+    public double penalty(Team t) {
+        double sum = 0;
+        for (int i = 0; i < rules.length; i++) sum += weights[i] * rules[i].violation(t);
+        return sum;
+    }
+
+    /** Penalty change if {@code p} joins {@code t}. */
+    public double addCost(Team t, Participant p) {
+        double sum = 0;
+        for (int i = 0; i < rules.length; i++) sum += weights[i] * rules[i].addDelta(t, p);
+        return sum;
+    }
+
+    /** Penalty change if member {@code p} leaves {@code t}. */
+    public double removeCost(Team t, Participant p) {
+        double sum = 0;
+        for (int i = 0; i < rules.length; i++) sum += weights[i] * rules[i].removeDelta(t, p);
+        return sum;
+    }
+
+    /** Penalty change if member {@code out} of {@code t} is replaced by {@code in}. */
+    public double replaceCost(Team t, Participant out, Participant in) {
+        double sum = 0;
+        for (int i = 0; i < rules.length; i++) sum += weights[i] * rules[i].replaceDelta(t, out, in);
+        return sum;
+    }
+}
@@ -0,0 +1,128 @@
+package com.teamMate.core;
+
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+
+import java.util.*;
+
+/**
+ * Dashboard aggregates kept current as the pool and the formed teams change, so rendering
+ * never rescans participants or teams.
+ * Participant counts follow the registry through {@link RegistryListener}; team figures are
+ * reset by {@link #teamsFormed} and refreshed per team by {@link #teamChanged}
+ * (wire it to TeamMaintainer.setTeamListener). All methods are synchronized, so an import
+ * running on another thread never shows a half-applied participant.
+ */
+public class DashboardStats implements RegistryListener {
+
+    public static final int MAX_SKILL = 10;
+
+    private int participants;
+    private int[] byGame = new int[GameType.CODES.size()];
+    private int[] byRole = new int[RoleType.CODES.size()];
+    private int[] byPersonality = new int[PersonalityType.CODES.size()];
+    // index = skill rating 0..MAX_SKILL; out-of-range ratings are clamped
+    private final int[] skillHistogram = new int[MAX_SKILL + 1];
+
+    /** What one team contributes to the team figures, remembered so it can be taken back out. */
+    private static class TeamEntry {
+        double average;
+        boolean overCap, notDiverse, mixMiss, undersized;
+    }
+
+    private final Map<Team, TeamEntry> teams = new IdentityHashMap<>();
+    // team skill averages as a multiset, for the spread
+    private final TreeMap<Double, Integer> averages = new TreeMap<>();
+    private int teamSize;
+    private int gameCap;
+    private int overCap, notDiverse, mixMisses, undersized;
+
+    @Override
+    public synchronized void added(Participant p) {
+        participants++;
+        byGame = bump(byGame, p.getGameCode(), 1);
+        byRole = bump(byRole, p.getRoleCode(), 1);
+        byPersonality = bump(byPersonality, p.getPersonalityCode(), 1);
+        skillHistogram[skillBucket(p)]++;
+    }
+
+    @Override
+    public synchronized void addedAll(List<Participant> ps) {
+        for (Participant p : ps) added(p);
+    }
+
+    @Override
+    public synchronized void removed(Participant p) {
+        participants--;
+        byGame = bump(byGame, p.getGameCode(), -1);
+        byRole = bump(byRole, p.getRoleCode(), -1);
+        byPersonality = bump(byPersonality, p.getPersonalityCode(), -1);
+        skillHistogram[skillBucket(p)]--;
+    }
+
+    /** Replaces all team figures with those of a fresh formation. */
+    public synchronized void teamsFormed(List<Team> formed, int teamSize, int gameCap) {
+        teams.clear();
+        averages.clear();
+        overCap = notDiverse = mixMisses = undersized = 0;
+        this.teamSize = teamSize;
+        this.gameCap = gameCap;
+        for (Team t : formed) teamChanged(t);
+    }
+
+    /** Re-reads one team; a team with no members is dropped from the figures. */
+    public synchronized void teamChanged(Team t) {
+        TeamEntry old = teams.remove(t);
+        if (old != null) apply(old, -1);
+        if (t.size() == 0) return;
+        TeamEntry e = new TeamEntry();
+        e.average = t.averageSkill();
+        e.notDiverse = t.distinctRoles() < Math.min(RoleDiversityEnforcer.TARGET_ROLES, t.size());
+        int leaders = t.personalityCount(PersonalityType.LEADER_CODE);
+        int thinkers = t.personalityCount(PersonalityType.THINKER_CODE);
+        e.mixMiss = leaders != 1 || thinkers < 1 || thinkers > 2;
+        e.undersized = t.size() < teamSize;
+        for (int g = 0; g < GameType.CODES.size() && !e.overCap; g++) {
+            e.overCap = t.gameCount(g) > gameCap;
+        }
+        teams.put(t, e);
+        apply(e, 1);
+    }
+
+    private void apply(TeamEntry e, int delta) {
+        averages.merge(e.average, delta, (a, b) -> a + b == 0 ? null : a + b);
+        if (e.overCap) overCap += delta;
+        if (e.notDiverse) notDiverse += delta;
+        if (e.mixMiss) mixMisses += delta;
+        if (e.undersized) undersized += delta;
+    }
+
+    public synchronized int participantCount() { return participants; }
+    public synchronized int[] gameCounts() { return byGame.clone(); }
+    public synchronized int[] roleCounts() { return byRole.clone(); }
+    public synchronized int[] personalityCounts() { return byPersonality.clone(); }
+    public synchronized int[] skillHistogram() { return skillHistogram.clone(); }
+
+    public synchronized int teamCount() { return teams.size(); }
+    public synchronized int overCapTeams() { return overCap; }
+    public synchronized int nonDiverseTeams() { return notDiverse; }
+    public synchronized int personalityMixMisses() { return mixMisses; }
+    public synchronized int undersizedTeams() { return undersized; }
+
+    /** Strongest minus weakest team average; 0 without teams. */
+    public synchronized double skillSpread() {
+        return averages.isEmpty() ? 0.0 : averages.lastKey() - averages.firstKey();
+    }
+
+    private static int[] bump(int[] counts, int code, int delta) {
+        if (code >= counts.length) counts = Arrays.copyOf(counts, Math.max(code + 1, counts.length * 2));
+        counts[code] += delta;
+        return counts;
+    }
+
+    private static int skillBucket(Participant p) {
+        return Math.max(0, Math.min(MAX_SKILL, p.getSkillRating()));
+    }
+}
@@ -0,0 +1,610 @@
+package com.teamMate.core;
+
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact team formation by branch-and-bound, for finals and invitationals (a few dozen to a few
+ * hundred players) where a provably optimal assignment is worth the wait.
+ *
+ * Minimises TeamOptimizer's objective over every split of the pool into ceil(n / teamSize)
+ * non-empty teams of at most teamSize members, the same space TeamOptimizer's moves explore.
+ * Participants are placed one at a time (leaders, then thinkers, strongest first):
+ * - symmetry breaking: teams are interchangeable, so a participant may only open the lowest
+ *   empty team, and participants identical in game, role, personality and skill go to
+ *   non-decreasing team indexes;
+ * - admissible bounds: a subtree is cut once a lower bound on everything below it reaches the
+ *   best score so far. The bound adds the cap overflow already incurred plus what the remaining
+ *   players of each game cannot avoid, the roles each team can no longer reach, the leader and
+ *   thinker shortfalls and surpluses the remaining supply forces, and the smallest skill variance
+ *   the teams' still reachable averages allow;
+ * - the heuristic result is the first incumbent, so only strictly better assignments are kept.
+ * Shallow subtrees are forked onto a ForkJoinPool whenever the workers run short of queued
+ * work, and idle workers steal them. When the time limit expires the best assignment found so
+ * far is returned (the heuristic one if nothing better turned up) and isOptimal() is false.
+ */
+public class ExactSolver {
+
+    /** Larger pools are not searched (solve returns the incumbent): the recursion is one level per participant. */
+    public static final int MAX_POOL = 1000;
+
+    private static final double EPS = 1e-9;
+    // subtrees with fewer participants left than this always stay on the current thread
+    private static final int MIN_FORK_REMAINING = 12;
+    private static final int ROLE_TARGET = RoleDiversityEnforcer.TARGET_ROLES;
+    private static final byte LEADER = 0, THINKER = 1, OTHER = 2;
+
+    private final int n, teamSize, cap, teams, slack, games, roles;
+    private final Participant[] order;
+    private final int[] game, role, skill;
+    private final byte[] kind;
+    private final boolean[] sameAsPrevious;
+    private final double meanSkill;
+    private final long totalSkill;
+    // suffix aggregates over participants i..n-1
+    private final int[][] remGame, remRole;
+    private final int[] remLeaders, remThinkers;
+    // [i][k]: sum of the k lowest / highest skills among participants i..n-1, k <= teamSize
+    private final long[][] lowest, highest;
+
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+    private final LongAdder nodes = new LongAdder();
+    private volatile double bestScore;
+    private volatile boolean stopped;
+    private long deadline;
+    private int[] bestAssign; // guarded by this
+
+    private boolean optimal;
+    private double score;
+
+    public ExactSolver(List<Participant> pool, int teamSize, int maxSameGamePerTeam) {
+        this.teamSize = Math.max(2, teamSize);
+        this.cap = Math.max(1, maxSameGamePerTeam);
+        this.n = pool.size();
+        this.teams = (int) Math.ceil((double) n / this.teamSize);
+        this.slack = teams * this.teamSize - n;
+
+        order = pool.toArray(new Participant[0]);
+        Arrays.sort(order, Comparator.comparingInt(ExactSolver::kindOf)
+                .thenComparing(Comparator.comparingInt(Participant::getSkillRating).reversed())
+                .thenComparingInt(Participant::getGameCode)
+                .thenComparingInt(Participant::getRoleCode)
+                .thenComparing(Participant::getId));
+        game = new int[n];
+        role = new int[n];
+        skill = new int[n];
+        kind = new byte[n];
+        sameAsPrevious = new boolean[n];
+        int g = 0, r = 0;
+        long skillSum = 0;
+        for (int i = 0; i < n; i++) {
+            Participant p = order[i];
+            game[i] = p.getGameCode();
+            role[i] = p.getRoleCode();
+            skill[i] = p.getSkillRating();
+            kind[i] = kindOf(p);
+            g = Math.max(g, game[i] + 1);
+            r = Math.max(r, role[i] + 1);
+            skillSum += skill[i];
+            sameAsPrevious[i] = i > 0 && game[i] == game[i - 1] && role[i] == role[i - 1]
+                    && kind[i] == kind[i - 1] && skill[i] == skill[i - 1];
+        }
+        games = g;
+        roles = r;
+        totalSkill = skillSum;
+        meanSkill = n == 0 ? 0 : (double) skillSum / n;
+
+        remGame = new int[n + 1][games];
+        remRole = new int[n + 1][roles];
+        remLeaders = new int[n + 1];
+        remThinkers = new int[n + 1];
+        lowest = new long[n + 1][this.teamSize + 1];
+        highest = new long[n + 1][this.teamSize + 1];
+        int[] sorted = new int[n]; // skills of i..n-1, ascending, in sorted[i..n-1]
+        for (int i = n - 1; i >= 0; i--) {
+            System.arraycopy(remGame[i + 1], 0, remGame[i], 0, games);
+            System.arraycopy(remRole[i + 1], 0, remRole[i], 0, roles);
+            remGame[i][game[i]]++;
+            remRole[i][role[i]]++;
+            remLeaders[i] = remLeaders[i + 1] + (kind[i] == LEADER ? 1 : 0);
+            remThinkers[i] = remThinkers[i + 1] + (kind[i] == THINKER ? 1 : 0);
+            int at = i;
+            while (at + 1 < n && sorted[at + 1] < skill[i]) {
+                sorted[at] = sorted[at + 1];
+                at++;
+            }
+            sorted[at] = skill[i];
+            for (int k = 1; k <= this.teamSize && k <= n - i; k++) {
+                lowest[i][k] = lowest[i][k - 1] + sorted[i + k - 1];
+                highest[i][k] = highest[i][k - 1] + sorted[n - k];
+            }
+        }
+    }
+
+    /**
+     * Searches for an assignment scoring lower than {@code incumbent} (the heuristic result)
+     * for up to {@code timeLimitMillis}. Returns the optimal teams, or the incumbent when nothing
+     * better exists or was found in time. Participants the heuristic left out (the game cap
+     * blocked every team) are first added to a copy of the incumbent wherever there is room,
+     * since here everyone is placed, and the copy gets a tenth of the limit in TeamOptimizer.
+     * An incumbent that still has empty teams does not bound the search.
+     */
+    public List<Team> solve(List<Team> incumbent, long timeLimitMillis) {
+        long start = System.nanoTime();
+        nodes.reset();
+        if (n == 0 || n > MAX_POOL) {
+            optimal = n == 0;
+            score = incumbent == null ? 0 : TeamOptimizer.evaluate(incumbent, cap);
+            return incumbent;
+        }
+        List<Team> completed = complete(incumbent);
+        if (completed != incumbent) {
+            new TeamOptimizer(completed, teamSize, cap, 0).optimize(Math.max(0, timeLimitMillis) / 10);
+            incumbent = completed;
+        }
+        double incumbentScore = incumbent == null ? Double.POSITIVE_INFINITY : TeamOptimizer.evaluate(incumbent, cap);
+        bestScore = covers(incumbent) ? incumbentScore : Double.POSITIVE_INFINITY;
+        bestAssign = null;
+        stopped = false;
+
+        deadline = start + Math.max(0, timeLimitMillis) * 1_000_000L;
+        ForkJoinPool fj = new ForkJoinPool(parallelism);
+        try {
+            fj.invoke(new Branch(new Assignment(), 0));
+        } finally {
+            fj.shutdown();
+        }
+        optimal = !stopped;
+
+        Metrics.recordNanos("exact.search", System.nanoTime() - start);
+        Metrics.add("exact.nodes", nodes.sum());
+        Metrics.increment(optimal ? "exact.proven" : "exact.timeouts");
+        int[] assign;
+        synchronized (this) {
+            assign = bestAssign;
+        }
+        if (assign == null) {
+            score = incumbentScore;
+            return incumbent;
+        }
+        Metrics.increment("exact.improved");
+        List<Team> result = new ArrayList<>(teams);
+        for (int t = 0; t < teams; t++) result.add(new Team(t + 1));
+        for (int i = 0; i < n; i++) result.get(assign[i]).addMember(order[i]);
+        score = TeamOptimizer.evaluate(result, cap);
+        return result;
+    }
+
+    /** True when the last solve finished its search, so no assignment scores lower. */
+    public boolean isOptimal() { return optimal; }
+    /** TeamOptimizer score of the teams the last solve returned. */
+    public double getScore() { return score; }
+    public long getNodes() { return nodes.sum(); }
+
+    // ---- search ----
+
+    @SuppressWarnings("serial")
+    private final class Branch extends RecursiveAction {
+        private final Assignment state;
+        private final int depth;
+
+        Branch(Assignment state, int depth) {
+            this.state = state;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            search(state, depth);
+            nodes.add(state.nodes);
+        }
+    }
+
+    private void search(Assignment s, int i) {
+        if (stopped) return;
+        if ((++s.nodes & 1023) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+            return;
+        }
+        if (i == n) {
+            offer(s);
+            return;
+        }
+        if (lowerBound(s, i) >= bestScore - EPS) return;
+
+        int count = children(s, i);
+        int[] c = s.children[i];
+        if (parallelism > 1 && count > 1 && n - i > MIN_FORK_REMAINING
+                && ForkJoinTask.getSurplusQueuedTaskCount() < 2) {
+            List<Branch> forks = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                Assignment copy = s.copy();
+                copy.place(i, c[k]);
+                forks.add(new Branch(copy, i + 1));
+            }
+            ForkJoinTask.invokeAll(forks);
+            return;
+        }
+        for (int k = 0; k < count; k++) {
+            s.place(i, c[k]);
+            search(s, i + 1);
+            s.unplace(i, c[k]);
+            if (stopped) return;
+        }
+    }
+
+    /** Fills s.children[i] with the teams participant i may join, cheapest first; returns how many. */
+    private int children(Assignment s, int i) {
+        if (s.children[i] == null) s.children[i] = new int[teams];
+        int[] c = s.children[i];
+        int count = 0;
+        // once the participants left are just enough to start the unopened teams, each must start one
+        if (n - i > teams - s.opened) {
+            for (int t = sameAsPrevious[i] ? s.assign[i - 1] : 0; t < s.opened; t++) {
+                if (s.size[t] < teamSize) count = insertChild(s, c, count, t, delta(s, i, t));
+            }
+        }
+        if (s.opened < teams) count = insertChild(s, c, count, s.opened, delta(s, i, s.opened));
+        return count;
+    }
+
+    // insertion into c[0..count), kept ascending by s.keys
+    private static int insertChild(Assignment s, int[] c, int count, int t, double key) {
+        double[] keys = s.keys;
+        int at = count;
+        while (at > 0 && keys[at - 1] > key) {
+            keys[at] = keys[at - 1];
+            c[at] = c[at - 1];
+            at--;
+        }
+        keys[at] = key;
+        c[at] = t;
+        return count + 1;
+    }
+
+    /** Immediate change in the objective (variance term approximated) if participant i joins team t. */
+    private double delta(Assignment s, int i, int t) {
+        int size = s.size[t];
+        double d = s.gameCnt[t * games + game[i]] >= cap ? TeamOptimizer.CAP_WEIGHT : 0;
+        int distinct = s.distinct[t];
+        int distinctAfter = distinct + (s.roleCnt[t * roles + role[i]] == 0 ? 1 : 0);
+        d += TeamOptimizer.ROLE_WEIGHT * (missingRoles(size + 1, distinctAfter) - missingRoles(size, distinct));
+        int l = s.leaders[t], th = s.thinkers[t];
+        d += TeamOptimizer.PERSONALITY_WEIGHT * (PersonalityMixConstraint.mix(l + (kind[i] == LEADER ? 1 : 0), th + (kind[i] == THINKER ? 1 : 0))
+                - PersonalityMixConstraint.mix(l, th));
+        double before = size == 0 ? 0 : square((double) s.skillSum[t] / size - meanSkill);
+        double after = square((double) (s.skillSum[t] + skill[i]) / (size + 1) - meanSkill);
+        return d + TeamOptimizer.SKILL_VARIANCE_WEIGHT * (after - before) / teams;
+    }
+
+    private void offer(Assignment s) {
+        double penalty = TeamOptimizer.CAP_WEIGHT * s.overflow, sum = 0, sumSq = 0;
+        for (int t = 0; t < teams; t++) {
+            penalty += TeamOptimizer.ROLE_WEIGHT * missingRoles(s.size[t], s.distinct[t])
+                    + TeamOptimizer.PERSONALITY_WEIGHT * PersonalityMixConstraint.mix(s.leaders[t], s.thinkers[t]);
+            double avg = (double) s.skillSum[t] / s.size[t];
+            sum += avg;
+            sumSq += avg * avg;
+        }
+        double total = penalty + TeamOptimizer.SKILL_VARIANCE_WEIGHT * TeamOptimizer.variance(sum, sumSq, teams);
+        if (total >= bestScore - EPS) return;
+        synchronized (this) {
+            if (total < bestScore - EPS) {
+                bestScore = total;
+                bestAssign = s.assign.clone();
+            }
+        }
+    }
+
+    // ---- bounds ----
+
+    /** Lower bound on the score of every completion of s once participants 0..i-1 are placed. */
+    private double lowerBound(Assignment s, int i) {
+        int remaining = n - i;
+        int fresh = teams - s.opened;
+        // every team ends with at least minSize members: the others can hold at most (teams-1) * teamSize
+        int minSize = teamSize - slack;
+        int[] rg = remGame[i], rr = remRole[i];
+        int[] free = s.free;
+        Arrays.fill(free, 0);
+        int availableRoles = 0;
+        for (int r = 0; r < roles; r++) if (rr[r] > 0) availableRoles++;
+
+        int missing = 0;
+        int leaderExcess = 0, leaderShort = 0, leaderOpen = fresh;
+        int thinkerExcess = 0, thinkerShort = 0, thinkerOpen = fresh, thinkerRoom = fresh * Math.min(teamSize, 2);
+        for (int t = 0; t < s.opened; t++) {
+            int size = s.size[t], room = teamSize - size;
+            int l = s.leaders[t], th = s.thinkers[t];
+            leaderExcess += Math.max(0, l - 1);
+            thinkerExcess += Math.max(0, th - 2);
+            if (room == 0) {
+                missing += missingRoles(size, s.distinct[t]);
+                if (l == 0) leaderShort++;
+                if (th == 0) thinkerShort++;
+                continue;
+            }
+            if (l == 0) leaderOpen++;
+            if (th == 0) thinkerOpen++;
+            thinkerRoom += Math.min(room, Math.max(0, 2 - th));
+            int base = t * games;
+            for (int g = 0; g < games; g++) {
+                int f = cap - s.gameCnt[base + g];
+                if (f > 0 && rg[g] > 0) free[g] += Math.min(room, f);
+            }
+            int newRoles = 0;
+            base = t * roles;
+            for (int r = 0; r < roles; r++) if (rr[r] > 0 && s.roleCnt[base + r] == 0) newRoles++;
+            missing += fewestMissingRoles(size, s.distinct[t], newRoles,
+                    Math.max(size, minSize), Math.min(teamSize, size + remaining));
+        }
+        if (fresh > 0) {
+            missing += fresh * fewestMissingRoles(0, 0, availableRoles,
+                    Math.max(1, minSize), Math.min(teamSize, remaining));
+        }
+
+        int overflow = s.overflow;
+        int freshFree = fresh * Math.min(teamSize, cap);
+        for (int g = 0; g < games; g++) overflow += Math.max(0, rg[g] - free[g] - freshFree);
+
+        // a team without a leader (thinker) costs 1, so does every leader past the first (thinker past the second)
+        int leaders = remLeaders[i], thinkers = remThinkers[i];
+        int mixLb = leaderExcess + leaderShort + Math.abs(leaderOpen - leaders)
+                + thinkerExcess + thinkerShort + Math.max(0, thinkerOpen - thinkers) + Math.max(0, thinkers - thinkerRoom);
+
+        double lb = TeamOptimizer.CAP_WEIGHT * overflow + TeamOptimizer.ROLE_WEIGHT * missing
+                + TeamOptimizer.PERSONALITY_WEIGHT * mixLb;
+        if (lb >= bestScore - EPS) return lb;
+        double variance = slack == 0 ? fixedSizeVarianceBound(s, i) : varianceLowerBound(s, i, minSize);
+        return lb + TeamOptimizer.SKILL_VARIANCE_WEIGHT * variance;
+    }
+
+    /**
+     * Fewest missing roles a team of {@code size} with {@code distinct} roles can end with at a
+     * final size in [minFinal, maxFinal], if every newcomer brought one of {@code newRoles} unseen roles.
+     */
+    private static int fewestMissingRoles(int size, int distinct, int newRoles, int minFinal, int maxFinal) {
+        int best = Integer.MAX_VALUE;
+        for (int f = minFinal; f <= maxFinal; f++) {
+            best = Math.min(best, missingRoles(f, distinct + Math.min(f - size, newRoles)));
+        }
+        return best == Integer.MAX_VALUE ? 0 : best;
+    }
+
+    /**
+     * Each team's final average lies in an interval: its current members plus between the fewest
+     * and most newcomers it can still take, drawn from the lowest or highest remaining skills.
+     * The variance of values confined to intervals is at least min over m of
+     * sum(distance(m, interval)^2) / teams.
+     */
+    private double varianceLowerBound(Assignment s, int i, int minSize) {
+        int remaining = n - i;
+        long[] low = lowest[i], high = highest[i];
+        double[] lo = s.lo, hi = s.hi;
+        for (int t = 0; t < s.opened; t++) {
+            int size = s.size[t];
+            long sum = s.skillSum[t];
+            int kMin = Math.max(0, minSize - size), kMax = Math.min(teamSize - size, remaining);
+            if (kMin > kMax) return Double.POSITIVE_INFINITY; // cannot reach the smallest possible size
+            double a = Double.MAX_VALUE, b = -Double.MAX_VALUE;
+            for (int k = kMin; k <= kMax; k++) {
+                a = Math.min(a, (double) (sum + low[k]) / (size + k));
+                b = Math.max(b, (double) (sum + high[k]) / (size + k));
+            }
+            lo[t] = a;
+            hi[t] = b;
+        }
+        if (s.opened < teams) {
+            // the average of the k lowest skills only rises with k (of the k highest only falls)
+            int k = Math.min(Math.max(1, minSize), remaining);
+            double a = (double) low[k] / k, b = (double) high[k] / k;
+            for (int t = s.opened; t < teams; t++) {
+                lo[t] = a;
+                hi[t] = b;
+            }
+        }
+        return intervalVariance(lo, hi, teams);
+    }
+
+    /**
+     * Without slack every team ends with exactly teamSize members, so the team skill sums are
+     * integers in [current + lowest room remaining, current + highest room remaining] adding up to
+     * the pool's total, and the variance of the averages is
+     * sum((sum_t - total / teams)^2) / (teams * teamSize^2). Its least value over those ranges is
+     * reached by water-filling: every sum at clamp(w) for the highest level w that does not
+     * overshoot the total, plus one on as many teams sitting at w as the remainder needs.
+     */
+    private double fixedSizeVarianceBound(Assignment s, int i) {
+        long[] low = lowest[i], high = highest[i];
+        long[] lo = s.lowSum, hi = s.highSum;
+        long sumLo = 0, sumHi = 0, w = Long.MAX_VALUE, top = Long.MIN_VALUE;
+        for (int t = 0; t < teams; t++) {
+            int room = teamSize - s.size[t];
+            lo[t] = s.skillSum[t] + low[room];
+            hi[t] = s.skillSum[t] + high[room];
+            sumLo += lo[t];
+            sumHi += hi[t];
+            w = Math.min(w, lo[t]);
+            top = Math.max(top, hi[t]);
+        }
+        if (sumLo > totalSkill || sumHi < totalSkill) return Double.POSITIVE_INFINITY;
+        while (w < top) {
+            long mid = (w + top + 1) >>> 1;
+            if (filledTo(lo, hi, mid) <= totalSkill) w = mid;
+            else top = mid - 1;
+        }
+        long extra = totalSkill - filledTo(lo, hi, w);
+        double level = (double) totalSkill / teams, cost = 0;
+        for (int t = 0; t < teams; t++) {
+            long v = Math.max(lo[t], Math.min(hi[t], w));
+            if (extra > 0 && v == w && w < hi[t]) {
+                v++;
+                extra--;
+            }
+            cost += square(v - level);
+        }
+        return cost / ((double) teams * teamSize * teamSize);
+    }
+
+    private long filledTo(long[] lo, long[] hi, long w) {
+        long sum = 0;
+        for (int t = 0; t < teams; t++) sum += Math.max(lo[t], Math.min(hi[t], w));
+        return sum;
+    }
+
+    /** min over m of sum(dist(m, [lo_t, hi_t])^2) / count; sorts lo and hi in place. */
+    static double intervalVariance(double[] lo, double[] hi, int count) {
+        double maxLo = -Double.MAX_VALUE, minHi = Double.MAX_VALUE;
+        for (int t = 0; t < count; t++) {
+            maxLo = Math.max(maxLo, lo[t]);
+            minHi = Math.min(minHi, hi[t]);
+        }
+        if (maxLo <= minHi) return 0; // one value fits every interval
+        // each interval contributes through its lo (m below it) or its hi (m above it), never both,
+        // so the two ends can be sorted separately; sweep m over the merged breakpoints
+        Arrays.sort(lo, 0, count);
+        Arrays.sort(hi, 0, count);
+        double above = 0, below = 0; // sum of lo over intervals above m, of hi over intervals below m
+        for (int t = 0; t < count; t++) above += lo[t];
+        int a = 0, b = 0;
+        double prev = -Double.MAX_VALUE;
+        while (a < count || b < count) {
+            double next = b >= count || (a < count && lo[a] <= hi[b]) ? lo[a] : hi[b];
+            int active = (count - a) + b;
+            if (active > 0) {
+                double m = (above + below) / active; // zero of the derivative with this active set
+                if (m >= prev && m <= next) return intervalCost(lo, hi, count, m) / count;
+            }
+            if (b >= count || (a < count && lo[a] <= hi[b])) above -= lo[a++];
+            else below += hi[b++];
+            prev = next;
+        }
+        return 0; // not reached but for rounding; 0 keeps the bound admissible
+    }
+
+    private static double intervalCost(double[] lo, double[] hi, int count, double m) {
+        double cost = 0;
+        for (int t = 0; t < count; t++) {
+            if (lo[t] > m) cost += square(lo[t] - m);
+            if (hi[t] < m) cost += square(m - hi[t]);
+        }
+        return cost;
+    }
+
+    // ---- helpers ----
+
+    private static int missingRoles(int size, int distinct) {
+        return Math.max(0, Math.min(ROLE_TARGET, size) - distinct);
+    }
+
+    private static double square(double x) {
+        return x * x;
+    }
+
+    private static byte kindOf(Participant p) {
+        int code = p.getPersonalityCode();
+        if (code == PersonalityType.LEADER_CODE) return LEADER;
+        if (code == PersonalityType.THINKER_CODE) return THINKER;
+        return OTHER;
+    }
+
+    /** Copy of the incumbent with missing participants added to teams with room (fewest of their game first). */
+    private List<Team> complete(List<Team> incumbent) {
+        if (incumbent == null || incumbent.size() != teams) return incumbent;
+        Set<Participant> placed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Team t : incumbent) placed.addAll(t.getMembers());
+        if (placed.size() >= n) return incumbent;
+        List<Team> copy = new ArrayList<>(teams);
+        for (Team t : incumbent) copy.add(new Team(t.getTeamId(), t));
+        for (Participant p : order) {
+            if (placed.contains(p)) continue;
+            Team best = null;
+            for (Team t : copy) {
+                if (t.size() >= teamSize) continue;
+                if (best == null || t.gameCount(p.getGameCode()) < best.gameCount(p.getGameCode())
+                        || (t.gameCount(p.getGameCode()) == best.gameCount(p.getGameCode()) && t.size() < best.size())) {
+                    best = t;
+                }
+            }
+            if (best == null) return incumbent;
+            best.addMember(p);
+        }
+        return copy;
+    }
+
+    // the incumbent is a complete assignment in this solver's space
+    private boolean covers(List<Team> incumbent) {
+        if (incumbent == null || incumbent.size() != teams) return false;
+        int placed = 0;
+        for (Team t : incumbent) {
+            if (t.size() == 0 || t.size() > teamSize) return false;
+            placed += t.size();
+        }
+        return placed == n;
+    }
+
+    /** Partial assignment with per-team counters; one per search thread. */
+    private final class Assignment {
+        final int[] assign = new int[n];
+        final int[] size = new int[teams];
+        final long[] skillSum = new long[teams];
+        final int[] leaders = new int[teams];
+        final int[] thinkers = new int[teams];
+        final int[] distinct = new int[teams];
+        final int[] gameCnt = new int[teams * games];
+        final int[] roleCnt = new int[teams * roles];
+        int opened;
+        int overflow;
+        long nodes;
+        // scratch, not copied
+        final int[][] children = new int[n][];
+        final double[] keys = new double[teams];
+        final int[] free = new int[games];
+        final double[] lo = new double[teams];
+        final double[] hi = new double[teams];
+        final long[] lowSum = new long[teams];
+        final long[] highSum = new long[teams];
+
+        Assignment copy() {
+            Assignment c = new Assignment();
+            System.arraycopy(assign, 0, c.assign, 0, n);
+            System.arraycopy(size, 0, c.size, 0, teams);
+            System.arraycopy(skillSum, 0, c.skillSum, 0, teams);
+            System.arraycopy(leaders, 0, c.leaders, 0, teams);
+            System.arraycopy(thinkers, 0, c.thinkers, 0, teams);
+            System.arraycopy(distinct, 0, c.distinct, 0, teams);
+            System.arraycopy(gameCnt, 0, c.gameCnt, 0, gameCnt.length);
+            System.arraycopy(roleCnt, 0, c.roleCnt, 0, roleCnt.length);
+            c.opened = opened;
+            c.overflow = overflow;
+            return c;
+        }
+
+        void place(int i, int t) {
+            assign[i] = t;
+            if (t == opened) opened++;
+            size[t]++;
+            skillSum[t] += skill[i];
+            if (gameCnt[t * games + game[i]]++ >= cap) overflow++;
+            if (roleCnt[t * roles + role[i]]++ == 0) distinct[t]++;
+            if (kind[i] == LEADER) leaders[t]++;
+            else if (kind[i] == THINKER) thinkers[t]++;
+        }
+
+        void unplace(int i, int t) {
+            if (--size[t] == 0) opened--; // only the last opened team can become empty again
+            skillSum[t] -= skill[i];
+            if (--gameCnt[t * games + game[i]] >= cap) overflow--;
+            if (--roleCnt[t * roles + role[i]] == 0) distinct[t]--;
+            if (kind[i] == LEADER) leaders[t]--;
+            else if (kind[i] == THINKER) thinkers[t]--;
+        }
+    }
+}
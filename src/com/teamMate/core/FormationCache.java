@@ -0,0 +1,288 @@
+package com.teamMate.core;
+
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.Participant;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Remembers formation results so re-running formation on an unchanged pool with the same
+ * parameters returns at once. Entries are keyed by the pool's {@link PoolFingerprint} plus
+ * team size, game cap, mode, run count, optimizer budget and seed, so an edit simply makes
+ * the old key unreachable; entries for other pools or parameters stay valid.
+ *
+ * Teams are stored as member arrays, never as live Team objects (the caller is free to
+ * mutate what it gets back), and rebuilt on a hit. If participants were added or removed
+ * since an entry was stored, its members are first re-resolved by id so a hit never hands out
+ * an object that has left the registry. Memory use is bounded by an estimate in bytes with
+ * least-recently-used eviction. With a directory, entries are also written to disk (as ids)
+ * and found again in later sessions; the directory's entry files are held to the same byte
+ * budget, dropping the least recently used (by modification time, refreshed on a disk hit)
+ * on every put.
+ */
+public class FormationCache {
+
+    private static final int MAGIC = 0x544D4643; // "TMFC"
+    private static final int VERSION = 2;
+
+    /** Everything a formation result depends on. */
+    public static class Key {
+        final long poolCount, poolHashA, poolHashB;
+        final int teamSize, cap, runs;
+        final long seed, budgetMs;
+        final FormationMode mode;
+        // not part of the identity: tells get whether stored members need re-resolving
+        final long membership;
+
+        public Key(PoolFingerprint pool, int teamSize, int cap, FormationMode mode, int runs, long budgetMs, long seed) {
+            synchronized (pool) {
+                this.poolCount = pool.count();
+                this.poolHashA = pool.hashA();
+                this.poolHashB = pool.hashB();
+                this.membership = pool.membershipVersion();
+            }
+            this.teamSize = teamSize;
+            this.cap = cap;
+            this.mode = mode;
+            this.runs = runs;
+            this.budgetMs = budgetMs;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return poolCount == k.poolCount && poolHashA == k.poolHashA && poolHashB == k.poolHashB
+                    && teamSize == k.teamSize && cap == k.cap && runs == k.runs
+                    && seed == k.seed && budgetMs == k.budgetMs && mode == k.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(poolHashA, poolHashB, teamSize, cap, runs, seed, budgetMs, mode);
+        }
+
+        String fileName() {
+            return String.format("%016x%016x-%x-%d-%d-%s-%d-%d-%016x.tmfc", poolHashA, poolHashB, poolCount,
+                    teamSize, cap, mode.name().toLowerCase(), runs, budgetMs, seed);
+        }
+    }
+
+    /** A result reduced to member arrays: teamIds[t] holds members[t]. */
+    private static class Entry {
+        final int[] teamIds;
+        final Participant[][] members;
+        final long seed;
+        final double score;
+        final boolean optimal;
+        final long bytes;
+        // PoolFingerprint.membershipVersion the members were last checked against
+        long membership;
+
+        Entry(int[] teamIds, Participant[][] members, long seed, double score, boolean optimal, long membership) {
+            this.teamIds = teamIds;
+            this.members = members;
+            this.seed = seed;
+            this.score = score;
+            this.optimal = optimal;
+            this.membership = membership;
+            // rough footprint; the participants themselves belong to the registry
+            long b = 64 + 4L * teamIds.length;
+            for (Participant[] m : members) b += 16 + 8L * m.length;
+            this.bytes = b;
+        }
+    }
+
+    private final long maxBytes;
+    private final Path dir;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    /** @param dir where entries are persisted, or null to keep them in memory only */
+    public FormationCache(long maxBytes, Path dir) {
+        this.maxBytes = maxBytes;
+        this.dir = dir;
+    }
+
+    /**
+     * Returns the cached result, or null on a miss. {@code lookup} (id to registered participant)
+     * is only used when the pool's membership changed since the entry was stored; a result
+     * naming an id that no longer resolves is dropped.
+     */
+    public synchronized MultiSeedFormation.Result get(Key key, Function<String, Participant> lookup) {
+        Entry e = entries.get(key);
+        if (e == null && dir != null) {
+            e = load(key, lookup);
+            if (e != null) {
+                Metrics.increment("formation_cache.disk_hits");
+                touch(dir.resolve(key.fileName()));
+                remember(key, e);
+            }
+        }
+        if (e != null && e.membership != key.membership && !resolve(e, lookup)) {
+            forget(key);
+            e = null;
+        }
+        if (e == null) {
+            Metrics.increment("formation_cache.misses");
+            return null;
+        }
+        e.membership = key.membership;
+        List<Team> teams = new ArrayList<>(e.teamIds.length);
+        for (int t = 0; t < e.teamIds.length; t++) {
+            Team team = new Team(e.teamIds[t]);
+            for (Participant p : e.members[t]) team.addMember(p);
+            teams.add(team);
+        }
+        Metrics.increment("formation_cache.hits");
+        return new MultiSeedFormation.Result(teams, e.seed, e.score, e.optimal);
+    }
+
+    /** Caches a fresh result; call before the teams are handed to anything that mutates them. */
+    public synchronized void put(Key key, MultiSeedFormation.Result result) {
+        List<Team> teams = result.getTeams();
+        int[] teamIds = new int[teams.size()];
+        Participant[][] members = new Participant[teams.size()][];
+        for (int t = 0; t < teamIds.length; t++) {
+            teamIds[t] = teams.get(t).getTeamId();
+            members[t] = teams.get(t).getMembers().toArray(new Participant[0]);
+        }
+        Entry e = new Entry(teamIds, members, result.getSeed(), result.getScore(), result.isOptimal(), key.membership);
+        remember(key, e);
+        if (dir != null) save(key, e);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        return bytes;
+    }
+
+    private void remember(Key key, Entry e) {
+        forget(key);
+        // a result larger than the whole budget is not kept in memory at all
+        if (e.bytes > maxBytes) return;
+        entries.put(key, e);
+        bytes += e.bytes;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+            Metrics.increment("formation_cache.evictions");
+        }
+    }
+
+    private void forget(Key key) {
+        Entry old = entries.remove(key);
+        if (old != null) bytes -= old.bytes;
+    }
+
+    /** Swaps every stored member for the currently registered participant with its id. */
+    private static boolean resolve(Entry e, Function<String, Participant> lookup) {
+        for (Participant[] m : e.members) {
+            for (int i = 0; i < m.length; i++) {
+                Participant p = lookup.apply(m[i].getId());
+                if (p == null) return false;
+                m[i] = p;
+            }
+        }
+        return true;
+    }
+
+    private void save(Key key, Entry e) {
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "entry", ".tmp");
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                dos.writeLong(e.seed);
+                dos.writeDouble(e.score);
+                dos.writeBoolean(e.optimal);
+                dos.writeInt(e.teamIds.length);
+                for (int t = 0; t < e.teamIds.length; t++) {
+                    dos.writeInt(e.teamIds[t]);
+                    dos.writeInt(e.members[t].length);
+                    for (Participant p : e.members[t]) dos.writeUTF(p.getId());
+                }
+            }
+            // readers never see a half-written entry
+            Path file = dir.resolve(key.fileName());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            prune(file);
+        } catch (IOException ex) {
+            System.err.println("Could not persist formation cache entry: " + ex.getMessage());
+        }
+    }
+
+    /** Deletes the oldest entry files until the directory fits maxBytes; {@code keep} is never deleted. */
+    private void prune(Path keep) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.tmfc")) {
+            for (Path p : ds) files.add(p);
+        }
+        Map<Path, long[]> info = new HashMap<>();
+        long total = 0;
+        for (Path p : files) {
+            try {
+                long size = Files.size(p);
+                info.put(p, new long[]{size, Files.getLastModifiedTime(p).toMillis()});
+                total += size;
+            } catch (NoSuchFileException gone) {
+                // removed by another session
+            }
+        }
+        if (total <= maxBytes) return;
+        files.removeIf(p -> !info.containsKey(p));
+        files.sort(Comparator.comparingLong(p -> info.get(p)[1]));
+        for (Path p : files) {
+            if (total <= maxBytes) break;
+            if (p.equals(keep)) continue;
+            Files.deleteIfExists(p);
+            total -= info.get(p)[0];
+            Metrics.increment("formation_cache.disk_evictions");
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // only affects eviction order
+        }
+    }
+
+    /** Reads a persisted entry and resolves its ids; null if absent, unreadable or stale. */
+    private Entry load(Key key, Function<String, Participant> lookup) {
+        Path file = dir.resolve(key.fileName());
+        if (!Files.exists(file)) return null;
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) return null;
+            long seed = dis.readLong();
+            double score = dis.readDouble();
+            boolean optimal = dis.readBoolean();
+            int teams = dis.readInt();
+            int[] teamIds = new int[teams];
+            Participant[][] members = new Participant[teams][];
+            for (int t = 0; t < teams; t++) {
+                teamIds[t] = dis.readInt();
+                members[t] = new Participant[dis.readInt()];
+                for (int m = 0; m < members[t].length; m++) {
+                    members[t][m] = lookup.apply(dis.readUTF());
+                    if (members[t][m] == null) return null;
+                }
+            }
+            return new Entry(teamIds, members, seed, score, optimal, key.membership);
+        } catch (IOException ex) {
+            System.err.println("Ignoring unreadable formation cache entry " + file + ": " + ex.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.teamMate.core;
+
+/** Which TeamBuilder strategy a formation run uses. */
+public enum FormationMode {
+    /** Personality passes, greedy fill, leftovers, role-diversity swaps. */
+    STANDARD,
+    /** Skill-ordered draft into the weakest eligible team (see TeamBuilder.buildBalancedTeams). */
+    SKILL_BALANCED,
+    /** STANDARD builds on stratified shards in parallel (see ShardedFormation), for very large pools. */
+    SHARDED,
+    /** Branch-and-bound search for a provably optimal assignment (see ExactSolver), for small pools. */
+    EXACT;
+
+    /** Parses "standard"/"balanced"/"sharded"/"exact" (or 1/2/3/4); anything else is STANDARD. */
+    public static FormationMode parse(String s) {
+        if (s == null) return STANDARD;
+        String v = s.trim().toLowerCase();
+        if (v.equals("2") || v.startsWith("bal") || v.startsWith("skill")) return SKILL_BALANCED;
+        if (v.equals("3") || v.startsWith("shard")) return SHARDED;
+        if (v.equals("4") || v.startsWith("exact")) return EXACT;
+        return STANDARD;
+    }
+}
@@ -0,0 +1,65 @@
+package com.teamMate.core;
+
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/** At most {@code cap} members per game, optionally with a different cap for some games; one unit per member over. */
+public class GameCapConstraint implements TeamConstraint {
+
+    private final int defaultCap;
+    // per game code; codes past the end use defaultCap
+    private final int[] caps;
+
+    public GameCapConstraint(int cap) {
+        this(cap, Map.of());
+    }
+
+    /** @param perGame known game name (any case) to its own cap; unknown names are rejected */
+    public GameCapConstraint(int cap, Map<String, Integer> perGame) {
+        this.defaultCap = Math.max(1, cap);
+        int[] c = new int[0];
+        for (Map.Entry<String, Integer> e : perGame.entrySet()) {
+            int code = GameType.CODES.find(e.getKey());
+            if (code < 0) throw new IllegalArgumentException("unknown game " + e.getKey());
+            if (code >= c.length) {
+                int old = c.length;
+                c = Arrays.copyOf(c, code + 1);
+                Arrays.fill(c, old, c.length, defaultCap);
+            }
+            c[code] = Math.max(1, e.getValue());
+        }
+        this.caps = c;
+    }
+
+    public int capOf(int gameCode) {
+        return gameCode < caps.length ? caps[gameCode] : defaultCap;
+    }
+
+    @Override
+    public int violation(Team t) {
+        int over = 0;
+        for (int g = 0; g < GameType.CODES.size(); g++) over += Math.max(0, t.gameCount(g) - capOf(g));
+        return over;
+    }
+
+    @Override
+    public int addDelta(Team t, Participant p) {
+        int g = p.getGameCode();
+        return t.gameCount(g) >= capOf(g) ? 1 : 0;
+    }
+
+    @Override
+    public int removeDelta(Team t, Participant p) {
+        int g = p.getGameCode();
+        return t.gameCount(g) > capOf(g) ? -1 : 0;
+    }
+
+    @Override
+    public int replaceDelta(Team t, Participant out, Participant in) {
+        if (out.getGameCode() == in.getGameCode()) return 0;
+        return removeDelta(t, out) + addDelta(t, in);
+    }
+}
@@ -0,0 +1,45 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+
+/** At least {@code min} Leaders per team; one unit per missing Leader. */
+public class MinLeadersConstraint implements TeamConstraint {
+
+    private final int min;
+
+    public MinLeadersConstraint(int min) {
+        this.min = Math.max(0, min);
+    }
+
+    private int missing(int leaders) {
+        return Math.max(0, min - leaders);
+    }
+
+    private static int leaders(Participant p) {
+        return p.getPersonalityCode() == PersonalityType.LEADER_CODE ? 1 : 0;
+    }
+
+    @Override
+    public int violation(Team t) {
+        return missing(t.personalityCount(PersonalityType.LEADER_CODE));
+    }
+
+    @Override
+    public int addDelta(Team t, Participant p) {
+        int l = t.personalityCount(PersonalityType.LEADER_CODE);
+        return missing(l + leaders(p)) - missing(l);
+    }
+
+    @Override
+    public int removeDelta(Team t, Participant p) {
+        int l = t.personalityCount(PersonalityType.LEADER_CODE);
+        return missing(l - leaders(p)) - missing(l);
+    }
+
+    @Override
+    public int replaceDelta(Team t, Participant out, Participant in) {
+        int l = t.personalityCount(PersonalityType.LEADER_CODE);
+        return missing(l - leaders(out) + leaders(in)) - missing(l);
+    }
+}
@@ -0,0 +1,130 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs K independently seeded TeamBuilder passes in parallel on a ForkJoinPool,
+ * scores each with TeamOptimizer.evaluate and keeps the best (lowest score, then lowest run).
+ * Run 0 always uses the base seed, so re-running with K=1 and the reported seed
+ * reproduces the winning build. In EXACT mode the best run is the starting point of an
+ * ExactSolver search.
+ */
+public class MultiSeedFormation {
+
+    public static class Result {
+        private final List<Team> teams;
+        private final long seed;
+        private final double score;
+        private final boolean optimal;
+
+        Result(List<Team> teams, long seed, double score) {
+            this(teams, seed, score, false);
+        }
+
+        Result(List<Team> teams, long seed, double score, boolean optimal) {
+            this.teams = teams;
+            this.seed = seed;
+            this.score = score;
+            this.optimal = optimal;
+        }
+
+        public List<Team> getTeams() { return teams; }
+        public long getSeed() { return seed; }
+        public double getScore() { return score; }
+        /** True when an EXACT run finished its search: no assignment of the pool scores lower. */
+        public boolean isOptimal() { return optimal; }
+    }
+
+    /** ExactSolver time limit when EXACT mode is given no budget. */
+    public static final long DEFAULT_EXACT_MILLIS = 10_000;
+
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    public static long seedForRun(long baseSeed, int run) {
+        return baseSeed + run * SEED_STEP;
+    }
+
+    /**
+     * @param optimizeMillis per-run TeamOptimizer budget; 0 skips the optimizer. A time-budgeted
+     *                       optimizer is not bit-for-bit reproducible, the greedy build is.
+     *                       In EXACT mode: the whole run's time limit (see exact).
+     */
+    public static Result run(List<Participant> pool, int teamSize, int maxSameGamePerTeam,
+                             int k, long baseSeed, long optimizeMillis) throws InterruptedException, ExecutionException {
+        return run(pool, teamSize, maxSameGamePerTeam, k, baseSeed, optimizeMillis, FormationMode.STANDARD);
+    }
+
+    public static Result run(List<Participant> pool, int teamSize, int maxSameGamePerTeam, int k, long baseSeed,
+                             long optimizeMillis, FormationMode mode) throws InterruptedException, ExecutionException {
+        if (mode == FormationMode.EXACT) return exact(pool, teamSize, maxSameGamePerTeam, k, baseSeed, optimizeMillis);
+        return run(pool, teamSize, ConstraintSet.standard(maxSameGamePerTeam), k, baseSeed, optimizeMillis, mode);
+    }
+
+    /**
+     * Builds, optimizes and scores every run under {@code constraints}. EXACT mode is only
+     * available for the standard rules (ExactSolver's bounds are written for them).
+     */
+    public static Result run(List<Participant> pool, int teamSize, ConstraintSet constraints, int k, long baseSeed,
+                             long optimizeMillis, FormationMode mode) throws InterruptedException, ExecutionException {
+        if (mode == FormationMode.EXACT) throw new IllegalArgumentException("exact mode supports only the standard constraints");
+        int runs = Math.max(1, k);
+        int cores = Runtime.getRuntime().availableProcessors();
+        int parallelism = Math.min(runs, cores);
+        // sharded runs split the cores between them instead of each starting a core-sized pool
+        int shardThreads = Math.max(1, cores / parallelism);
+        List<Callable<Result>> tasks = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            final long seed = seedForRun(baseSeed, i);
+            tasks.add(() -> buildOne(pool, teamSize, constraints, seed, optimizeMillis, mode, shardThreads));
+        }
+
+        ForkJoinPool fj = new ForkJoinPool(parallelism);
+        try {
+            Result best = null;
+            for (Future<Result> f : fj.invokeAll(tasks)) {
+                Result r = f.get();
+                if (best == null || r.score < best.score) best = r;
+            }
+            TeamBuilder.recordRates(best.teams, teamSize);
+            return best;
+        } finally {
+            fj.shutdown();
+        }
+    }
+
+    /**
+     * K seeded STANDARD runs, each optimized for a tenth of the limit, then an ExactSolver search
+     * from the best of them for the rest of it ({@code limitMillis}, DEFAULT_EXACT_MILLIS if 0).
+     * If the limit runs out first the best assignment found so far is kept. The reported seed is
+     * the starting run's.
+     */
+    private static Result exact(List<Participant> pool, int teamSize, int cap, int k, long baseSeed,
+                                long limitMillis) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long limit = limitMillis > 0 ? limitMillis : DEFAULT_EXACT_MILLIS;
+        Result heuristic = run(pool, teamSize, cap, k, baseSeed, limit / 10, FormationMode.STANDARD);
+        long left = limit - (System.nanoTime() - start) / 1_000_000;
+        ExactSolver solver = new ExactSolver(pool, teamSize, cap);
+        List<Team> teams = solver.solve(heuristic.teams, Math.max(0, left));
+        TeamBuilder.recordRates(teams, teamSize);
+        return new Result(teams, heuristic.seed, solver.getScore(), solver.isOptimal());
+    }
+
+    private static Result buildOne(List<Participant> pool, int teamSize, ConstraintSet constraints, long seed, long optimizeMillis,
+                                   FormationMode mode, int shardThreads) throws InterruptedException, ExecutionException {
+        List<Team> teams;
+        if (mode == FormationMode.SHARDED) {
+            teams = ShardedFormation.build(pool, teamSize, constraints, seed, Runtime.getRuntime().availableProcessors(), shardThreads);
+        } else {
+            TeamBuilder builder = new TeamBuilder(pool, teamSize, constraints, seed);
+            teams = mode == FormationMode.SKILL_BALANCED ? builder.buildBalancedTeams() : builder.buildTeams();
+        }
+        double score = optimizeMillis > 0
+                ? new TeamOptimizer(teams, teamSize, constraints, seed).optimize(optimizeMillis)
+                : TeamOptimizer.evaluate(teams, constraints);
+        return new Result(teams, seed, score);
+    }
+}
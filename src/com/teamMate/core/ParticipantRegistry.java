@@ -0,0 +1,288 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe participant store with case-insensitive id and email indexes.
+ * Lookup, duplicate checks and email renames are O(1); iteration follows insertion order.
+ * Registered {@link RegistryListener}s are told about every add, removal and edit; edits made
+ * outside {@link #update} and {@link #changeEmail} are invisible to them.
+ *
+ * Writers lock only the stripes of the id and email keys they touch (always in stripe order,
+ * so two writers cannot deadlock), which makes "id and email both unused" plus the insert one
+ * atomic step while unrelated submissions proceed in parallel. Reads take no lock.
+ * {@link #atomically} holds every stripe for a consistent cut of the whole registry.
+ */
+public class ParticipantRegistry {
+
+    // enough stripes that unrelated writers rarely meet on the same lock
+    private static final int STRIPES = 64;
+
+    /** A registered participant and its insertion sequence number. */
+    private static class Entry {
+        final Participant participant;
+        final long seq;
+
+        Entry(Participant participant, long seq) {
+            this.participant = participant;
+            this.seq = seq;
+        }
+    }
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Participant> byEmail = new ConcurrentHashMap<>();
+    // insertion order for getAll
+    private final ConcurrentSkipListMap<Long, Participant> order = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextSeq = new AtomicLong();
+    private final List<RegistryListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ParticipantRegistry() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    private static String key(String s) {
+        return s == null ? "" : s.toLowerCase();
+    }
+
+    public void addListener(RegistryListener l) {
+        listeners.add(l);
+    }
+
+    public void removeListener(RegistryListener l) {
+        listeners.remove(l);
+    }
+
+    /** Adds the participant unless its id or email is already registered. */
+    public boolean add(Participant p) {
+        String idKey = key(p.getId());
+        String emailKey = key(p.getEmail());
+        int[] held = lock(idKey, emailKey);
+        try {
+            if (!insert(idKey, emailKey, p)) return false;
+            for (RegistryListener l : listeners) l.added(p);
+            return true;
+        } finally {
+            unlock(held);
+        }
+    }
+
+    /** Bulk {@link #add}: participants whose id or email is taken (also by an earlier one) are skipped. */
+    public int addAll(List<Participant> ps) {
+        List<Participant> added = new ArrayList<>(ps.size());
+        lockAll();
+        try {
+            for (Participant p : ps) {
+                if (insert(key(p.getId()), key(p.getEmail()), p)) added.add(p);
+            }
+            notifyAdded(added);
+        } finally {
+            unlockAll();
+        }
+        return added.size();
+    }
+
+    /**
+     * Bulk load of a table (e.g. a snapshot): holds every stripe once instead of locking per row,
+     * materializes only rows whose id and email are free and tells each listener once through
+     * {@link RegistryListener#addedAll}. Returns the number of participants added.
+     */
+    public int addAll(ParticipantTable table) {
+        List<Participant> added = new ArrayList<>(table.size());
+        lockAll();
+        try {
+            for (int i = 0; i < table.size(); i++) {
+                String idKey = key(table.getId(i));
+                String emailKey = key(table.getEmail(i));
+                if (byId.containsKey(idKey) || byEmail.containsKey(emailKey)) continue;
+                Participant p = table.toParticipant(i);
+                put(idKey, emailKey, p);
+                added.add(p);
+            }
+            notifyAdded(added);
+        } finally {
+            unlockAll();
+        }
+        return added.size();
+    }
+
+    // caller holds the stripes of both keys
+    private boolean insert(String idKey, String emailKey, Participant p) {
+        if (byId.containsKey(idKey) || byEmail.containsKey(emailKey)) return false;
+        put(idKey, emailKey, p);
+        return true;
+    }
+
+    // caller holds the stripes of both keys and has checked that both are free
+    private void put(String idKey, String emailKey, Participant p) {
+        long seq = nextSeq.getAndIncrement();
+        byId.put(idKey, new Entry(p, seq));
+        byEmail.put(emailKey, p);
+        order.put(seq, p);
+    }
+
+    private void notifyAdded(List<Participant> added) {
+        if (added.isEmpty()) return;
+        for (RegistryListener l : listeners) l.addedAll(added);
+    }
+
+    public boolean remove(Participant p) {
+        while (true) {
+            String idKey = key(p.getId());
+            String emailKey = key(p.getEmail());
+            int[] held = lock(idKey, emailKey);
+            try {
+                // the email moved while we were waiting for the locks: lock the right stripe
+                if (!emailKey.equals(key(p.getEmail()))) continue;
+                Entry e = byId.get(idKey);
+                if (e == null || e.participant != p) return false;
+                byId.remove(idKey);
+                byEmail.remove(emailKey, p);
+                order.remove(e.seq);
+                for (RegistryListener l : listeners) l.removed(p);
+                return true;
+            } finally {
+                unlock(held);
+            }
+        }
+    }
+
+    public Participant findById(String id) {
+        Entry e = byId.get(key(id));
+        return e == null ? null : e.participant;
+    }
+
+    public Participant findByEmail(String email) {
+        return byEmail.get(key(email));
+    }
+
+    public Participant findByIdOrEmail(String idOrEmail) {
+        Participant p = findById(idOrEmail);
+        return p != null ? p : findByEmail(idOrEmail);
+    }
+
+    public boolean containsId(String id) {
+        return byId.containsKey(key(id));
+    }
+
+    public boolean containsEmail(String email) {
+        return byEmail.containsKey(key(email));
+    }
+
+    /**
+     * Moves the participant to a new email, updating the index and the participant together.
+     * Returns false (and changes nothing) if another participant already uses that email.
+     */
+    public boolean changeEmail(Participant p, String newEmail) {
+        String newKey = key(newEmail);
+        while (true) {
+            String idKey = key(p.getId());
+            String oldKey = key(p.getEmail());
+            int[] held = lock(idKey, oldKey, newKey);
+            try {
+                if (!oldKey.equals(key(p.getEmail()))) continue;
+                Participant owner = byEmail.get(newKey);
+                if (owner != null && owner != p) return false;
+                Entry e = byId.get(idKey);
+                boolean registered = e != null && e.participant == p;
+                if (registered) for (RegistryListener l : listeners) l.updating(p);
+                byEmail.remove(oldKey, p);
+                if (registered) byEmail.put(newKey, p);
+                p.setEmail(newEmail);
+                if (registered) for (RegistryListener l : listeners) l.updated(p);
+                return true;
+            } finally {
+                unlock(held);
+            }
+        }
+    }
+
+    /**
+     * Applies an edit to a registered participant and reports it to the listeners.
+     * The edit must not change the id or email (use changeEmail for that).
+     */
+    public void update(Participant p, Runnable edit) {
+        int[] held = lock(key(p.getId()));
+        try {
+            Entry e = byId.get(key(p.getId()));
+            if (e == null || e.participant != p) {
+                edit.run();
+                return;
+            }
+            for (RegistryListener l : listeners) l.updating(p);
+            try {
+                edit.run();
+            } finally {
+                for (RegistryListener l : listeners) l.updated(p);
+            }
+        } finally {
+            unlock(held);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    /** Snapshot of all participants in insertion order (weakly consistent while writers run). */
+    public List<Participant> getAll() {
+        return new ArrayList<>(order.values());
+    }
+
+    /**
+     * Runs {@code action} while no add, removal or edit can happen, e.g. to capture the
+     * registry and switch a journal segment at the same instant. Listener locks must not be
+     * held by the caller.
+     */
+    public <T> T atomically(Supplier<T> action) {
+        lockAll();
+        try {
+            return action.get();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock l : stripes) l.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) stripes[i].unlock();
+    }
+
+    /** Locks the stripes of the given keys in ascending order; returns them for unlock. */
+    private int[] lock(String... keys) {
+        int[] idx = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) idx[i] = stripe(keys[i]);
+        Arrays.sort(idx);
+        int n = 0;
+        for (int i = 0; i < idx.length; i++) {
+            if (n == 0 || idx[i] != idx[n - 1]) idx[n++] = idx[i];
+        }
+        if (n < idx.length) idx = Arrays.copyOf(idx, n);
+        for (int s : idx) stripes[s].lock();
+        return idx;
+    }
+
+    private void unlock(int[] held) {
+        for (int i = held.length - 1; i >= 0; i--) stripes[held[i]].unlock();
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
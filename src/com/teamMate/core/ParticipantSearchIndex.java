@@ -0,0 +1,336 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+import java.util.*;
+
+/**
+ * Prefix and typo-tolerant search over participant ids, emails and names.
+ * - Prefix: every lowercased id, email, full name and name word maps to the participants
+ *   holding it. Keys are also kept sorted for prefix walks: a sorted array plus a short
+ *   unsorted run of new keys, merged in once the run grows past an eighth of the array,
+ *   so adds stay O(1) amortized and a query is a binary search plus a bounded scan.
+ * - Fuzzy (names only): distinct name terms are indexed by character trigram. Candidates come
+ *   from the query's rarest trigrams and are checked with a bounded edit distance
+ *   (adjacent transpositions count as one edit).
+ * Results are ranked exact match, then prefix (shorter key first), then fuzzy (by distance).
+ * Kept in sync as a RegistryListener; edits must go through ParticipantRegistry.update /
+ * changeEmail to be seen.
+ */
+public class ParticipantSearchIndex implements RegistryListener {
+
+    // prefix keys examined per query
+    private static final int PREFIX_SCAN = 256;
+    // unsorted keys tolerated before a merge is forced
+    private static final int MIN_PENDING = 4096;
+    // trigram postings read per fuzzy query; the rarest trigrams are read first
+    private static final int MAX_POSTINGS = 20_000;
+
+    // key -> Participant, or List<Participant> when several share the key
+    private final Map<String, Object> holders = new HashMap<>();
+    // sorted keys, possibly including keys that have since lost all holders
+    private String[] sorted = new String[0];
+    private final List<String> pending = new ArrayList<>();
+
+    private static class NameTerm {
+        final int id;
+        final String text;
+        int refs;
+
+        NameTerm(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private final Map<String, NameTerm> terms = new HashMap<>();
+    private final List<NameTerm> termsById = new ArrayList<>();
+    private final Map<Long, int[]> trigrams = new HashMap<>(); // slot 0 holds the posting count
+    private int[] overlap = new int[0]; // per-term scratch for one query
+    private final int[] touched = new int[MAX_POSTINGS];
+
+    /** One ranked hit: lower rank is better. */
+    public static class Match {
+        private final Participant participant;
+        private final int rank;
+        // within a rank: extra characters after a prefix match (shorter keys first)
+        private final int extra;
+
+        Match(Participant participant, int rank, int extra) {
+            this.participant = participant;
+            this.rank = rank;
+            this.extra = extra;
+        }
+
+        boolean betterThan(Match o) {
+            return rank != o.rank ? rank < o.rank : extra < o.extra;
+        }
+
+        public Participant getParticipant() { return participant; }
+        /** 0 exact, 1 prefix, 2 + edit distance for fuzzy matches. */
+        public int getRank() { return rank; }
+    }
+
+    @Override
+    public synchronized void added(Participant p) {
+        List<String> names = nameTerms(p);
+        for (String k : keysOf(p, names)) addKey(k, p);
+        for (String t : names) addTerm(t);
+        if (pending.size() > Math.max(MIN_PENDING, sorted.length / 8)) merge();
+    }
+
+    /** Indexes a bulk load with a single merge of the sorted keys at the end. */
+    @Override
+    public synchronized void addedAll(List<Participant> ps) {
+        for (Participant p : ps) {
+            List<String> names = nameTerms(p);
+            for (String k : keysOf(p, names)) addKey(k, p);
+            for (String t : names) addTerm(t);
+        }
+        if (!pending.isEmpty()) merge();
+    }
+
+    @Override
+    public synchronized void removed(Participant p) {
+        List<String> names = nameTerms(p);
+        for (String k : keysOf(p, names)) removeKey(k, p);
+        for (String t : names) {
+            NameTerm term = terms.get(t);
+            if (term != null) term.refs--; // postings stay; dead terms are skipped at query time
+        }
+    }
+
+    public synchronized List<Participant> search(String query, int limit) {
+        List<Participant> out = new ArrayList<>();
+        for (Match m : searchRanked(query, limit)) out.add(m.getParticipant());
+        return out;
+    }
+
+    public synchronized List<Match> searchRanked(String query, int limit) {
+        String q = norm(query);
+        if (q.isEmpty() || limit <= 0) return new ArrayList<>();
+        if (pending.size() > MIN_PENDING) merge();
+        Map<Participant, Match> best = new IdentityHashMap<>();
+
+        // exact and prefix matches from the sorted keys, then the unsorted run
+        int from = Arrays.binarySearch(sorted, q);
+        if (from < 0) from = -from - 1;
+        for (int i = from, scanned = 0; i < sorted.length && scanned < PREFIX_SCAN; i++, scanned++) {
+            if (!sorted[i].startsWith(q)) break;
+            prefixHit(sorted[i], q, limit, best);
+        }
+        for (String k : pending) {
+            if (k.startsWith(q)) prefixHit(k, q, limit, best);
+        }
+
+        if (best.size() < limit && q.length() >= 3) fuzzy(q, limit, best);
+
+        List<Match> out = new ArrayList<>(best.values());
+        out.sort(Comparator.comparingInt((Match m) -> m.rank).thenComparingInt(m -> m.extra));
+        return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+    }
+
+    private void prefixHit(String key, String q, int limit, Map<Participant, Match> best) {
+        collect(holders.get(key), key.length() == q.length() ? 0 : 1, key.length() - q.length(), limit, best);
+    }
+
+    private void fuzzy(String q, int limit, Map<Participant, Match> best) {
+        int maxDist = q.length() <= 4 ? 1 : 2;
+        List<int[]> lists = new ArrayList<>();
+        for (long g : trigramsOf(q)) {
+            int[] posting = trigrams.get(g);
+            if (posting != null) lists.add(posting);
+        }
+        if (lists.isEmpty()) return;
+        lists.sort(Comparator.comparingInt(l -> l[0]));
+
+        if (overlap.length < termsById.size()) overlap = new int[termsById.size()];
+        int touchedCount = 0;
+        int budget = MAX_POSTINGS;
+        int read = 0;
+        for (int[] posting : lists) {
+            int n = posting[0];
+            if (n > budget) break;
+            budget -= n;
+            read++;
+            for (int i = 1; i <= n; i++) {
+                if (overlap[posting[i]]++ == 0) touched[touchedCount++] = posting[i];
+            }
+        }
+        // each edit destroys at most 3 trigrams, so a match shares all but 3 * maxDist of those read
+        int minOverlap = Math.max(1, read - 3 * maxDist);
+        List<List<NameTerm>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxDist; d++) byDistance.add(new ArrayList<>());
+        for (int c = 0; c < touchedCount; c++) {
+            int id = touched[c];
+            int shared = overlap[id];
+            overlap[id] = 0;
+            NameTerm t = termsById.get(id);
+            if (shared < minOverlap || t.refs <= 0 || Math.abs(t.text.length() - q.length()) > maxDist) continue;
+            int d = editDistance(q, t.text, maxDist);
+            if (d <= maxDist) byDistance.get(d).add(t);
+        }
+        // closest terms first; stop once enough participants are found
+        int wanted = best.size() + limit;
+        for (int d = 0; d <= maxDist && best.size() < wanted; d++) {
+            for (NameTerm t : byDistance.get(d)) {
+                collect(holders.get(t.text), 2 + d, 0, limit, best);
+                if (best.size() >= wanted) break;
+            }
+        }
+    }
+
+    // at most limit holders per key: they all share the same rank
+    private static void collect(Object h, int rank, int extra, int limit, Map<Participant, Match> best) {
+        if (h == null) return;
+        if (h instanceof Participant) {
+            offer(new Match((Participant) h, rank, extra), best);
+        } else {
+            @SuppressWarnings("unchecked")
+            List<Participant> list = (List<Participant>) h;
+            for (int i = 0; i < list.size() && i < limit; i++) offer(new Match(list.get(i), rank, extra), best);
+        }
+    }
+
+    private static void offer(Match m, Map<Participant, Match> best) {
+        Match prev = best.get(m.participant);
+        if (prev == null || m.betterThan(prev)) best.put(m.participant, m);
+    }
+
+    private void addKey(String k, Participant p) {
+        Object cur = holders.putIfAbsent(k, p);
+        if (cur == null) {
+            pending.add(k); // may duplicate a dead key still in sorted; merge drops it
+        } else if (cur instanceof Participant) {
+            List<Participant> list = new ArrayList<>(2);
+            list.add((Participant) cur);
+            list.add(p);
+            holders.put(k, list);
+        } else {
+            @SuppressWarnings("unchecked")
+            List<Participant> list = (List<Participant>) cur;
+            list.add(p); // keysOf never yields a key twice for one participant
+        }
+    }
+
+    private void removeKey(String k, Participant p) {
+        Object cur = holders.get(k);
+        if (cur == p) {
+            holders.remove(k);
+        } else if (cur instanceof List) {
+            @SuppressWarnings("unchecked")
+            List<Participant> list = (List<Participant>) cur;
+            list.removeIf(x -> x == p);
+            if (list.size() == 1) holders.put(k, list.get(0));
+        }
+    }
+
+    /** Folds the pending run into the sorted array, dropping dead and duplicate keys. */
+    private void merge() {
+        String[] add = pending.toArray(new String[0]);
+        Arrays.sort(add);
+        String[] out = new String[sorted.length + add.length];
+        int i = 0, j = 0, n = 0;
+        String last = null;
+        while (i < sorted.length || j < add.length) {
+            String k = j >= add.length || (i < sorted.length && sorted[i].compareTo(add[j]) <= 0) ? sorted[i++] : add[j++];
+            if (k.equals(last) || !holders.containsKey(k)) continue;
+            out[n++] = k;
+            last = k;
+        }
+        sorted = Arrays.copyOf(out, n);
+        pending.clear();
+    }
+
+    private void addTerm(String text) {
+        NameTerm t = terms.get(text);
+        if (t == null) {
+            t = new NameTerm(termsById.size(), text);
+            terms.put(text, t);
+            termsById.add(t);
+            for (long g : trigramsOf(text)) {
+                int[] posting = trigrams.get(g);
+                int[] grown = posting == null ? new int[4]
+                        : posting[0] + 1 == posting.length ? Arrays.copyOf(posting, posting.length * 2) : posting;
+                grown[++grown[0]] = t.id;
+                if (grown != posting) trigrams.put(g, grown);
+            }
+        }
+        t.refs++;
+    }
+
+    private static List<String> keysOf(Participant p, List<String> names) {
+        List<String> ks = new ArrayList<>(names.size() + 2);
+        addDistinct(ks, norm(p.getId()));
+        addDistinct(ks, norm(p.getEmail()));
+        for (String n : names) addDistinct(ks, n);
+        return ks;
+    }
+
+    /** The full lowercased name plus each of its words. */
+    private static List<String> nameTerms(Participant p) {
+        List<String> ts = new ArrayList<>(4);
+        String name = norm(p.getName());
+        addDistinct(ts, name);
+        int start = -1;
+        for (int i = 0; i <= name.length(); i++) {
+            boolean space = i == name.length() || Character.isWhitespace(name.charAt(i));
+            if (!space && start < 0) start = i;
+            else if (space && start >= 0) {
+                addDistinct(ts, name.substring(start, i));
+                start = -1;
+            }
+        }
+        return ts;
+    }
+
+    private static void addDistinct(List<String> list, String s) {
+        if (!s.isEmpty() && !list.contains(s)) list.add(s);
+    }
+
+    private static String norm(String s) {
+        return s == null ? "" : s.trim().toLowerCase();
+    }
+
+    // trigrams of "$" + s + "$", each packed into a long (three 16-bit chars); the odd multiplier
+    // is a bijection that spreads the bits so Long.hashCode does not collide on similar trigrams
+    private static long[] trigramsOf(String s) {
+        String padded = "$" + s + "$";
+        int n = Math.max(0, padded.length() - 2);
+        long[] out = new long[n];
+        for (int i = 0; i < n; i++) {
+            long packed = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            out[i] = packed * 0x9E3779B97F4A7C15L;
+        }
+        return out;
+    }
+
+    /**
+     * Edit distance with adjacent transpositions (optimal string alignment),
+     * or max + 1 as soon as it is known to exceed max.
+     */
+    static int editDistance(String a, String b, int max) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] prev2 = new int[m + 1], prev = new int[m + 1], cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int d = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + (ca == cb ? 0 : 1));
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) d = Math.min(d, prev2[j - 2] + 1);
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) return max + 1;
+            int[] tmp = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return prev[m];
+    }
+}
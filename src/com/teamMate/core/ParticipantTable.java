@@ -0,0 +1,155 @@
+package com.teamMate.core;
+
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+
+import java.util.*;
+
+/**
+ * Columnar (struct-of-arrays) participant store.
+ * Skill and score are stored as bytes; game, role and personality as dictionary codes
+ * from GameType.CODES / RoleType.CODES / PersonalityType.CODES. Values a bounded dictionary
+ * folded into its fallback code keep their original text in a sparse side map, so a
+ * Participant -> table -> Participant round trip is lossless.
+ */
+public class ParticipantTable {
+
+    private String[] ids;
+    private String[] names;
+    private String[] emails;
+    private byte[] skill;        // 1-10
+    private byte[] score;        // 0-100
+    private short[] game;
+    private short[] role;
+    private byte[] personality;
+    private int size;
+    // row -> {game, role, personality} text for rows with a folded code; null = not folded
+    private final Map<Integer, String[]> folded = new HashMap<>();
+
+    public ParticipantTable(int capacity) {
+        int cap = Math.max(16, capacity);
+        ids = new String[cap];
+        names = new String[cap];
+        emails = new String[cap];
+        skill = new byte[cap];
+        score = new byte[cap];
+        game = new short[cap];
+        role = new short[cap];
+        personality = new byte[cap];
+    }
+
+    public static ParticipantTable of(List<Participant> participants) {
+        ParticipantTable t = new ParticipantTable(participants.size());
+        for (Participant p : participants) t.add(p);
+        return t;
+    }
+
+    public int add(Participant p) {
+        int i = add(p.getId(), p.getName(), p.getEmail(), p.getGameCode(), p.getRoleCode(),
+                p.getSkillRating(), p.getPersonalityScore(), p.getPersonalityCode());
+        String game = GameType.CODES.folds(p.getGameCode(), p.getGame()) ? p.getGame() : null;
+        String role = RoleType.CODES.folds(p.getRoleCode(), p.getRole()) ? p.getRole() : null;
+        String kind = PersonalityType.CODES.folds(p.getPersonalityCode(), p.getPersonalityType()) ? p.getPersonalityType() : null;
+        setFoldedText(i, game, role, kind);
+        return i;
+    }
+
+    /** Records the original text of row {@code i}'s folded codes; null entries are not folded. */
+    public void setFoldedText(int i, String game, String role, String personality) {
+        if (game == null && role == null && personality == null) folded.remove(i);
+        else folded.put(i, new String[]{game, role, personality});
+    }
+
+    /** {game, role, personality} text of row {@code i}'s folded codes, or null if none folded. */
+    public String[] getFoldedText(int i) {
+        return folded.get(i);
+    }
+
+    /** Rows with folded text, ascending. */
+    public int[] foldedRows() {
+        int[] rows = new int[folded.size()];
+        int n = 0;
+        for (int i : folded.keySet()) rows[n++] = i;
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    public int add(String id, String name, String email, int gameCode, int roleCode,
+                   int skillRating, int personalityScore, int personalityCode) {
+        if (gameCode > Short.MAX_VALUE || roleCode > Short.MAX_VALUE || personalityCode > Byte.MAX_VALUE)
+            throw new IllegalStateException("Too many distinct values for a dictionary column");
+        if (size == ids.length) grow();
+        int i = size++;
+        ids[i] = id;
+        names[i] = name;
+        emails[i] = email;
+        skill[i] = (byte) skillRating;
+        score[i] = (byte) personalityScore;
+        game[i] = (short) gameCode;
+        role[i] = (short) roleCode;
+        personality[i] = (byte) personalityCode;
+        return i;
+    }
+
+    private void grow() {
+        int cap = ids.length * 2;
+        ids = Arrays.copyOf(ids, cap);
+        names = Arrays.copyOf(names, cap);
+        emails = Arrays.copyOf(emails, cap);
+        skill = Arrays.copyOf(skill, cap);
+        score = Arrays.copyOf(score, cap);
+        game = Arrays.copyOf(game, cap);
+        role = Arrays.copyOf(role, cap);
+        personality = Arrays.copyOf(personality, cap);
+    }
+
+    public int size() { return size; }
+
+    public String getId(int i) { return ids[i]; }
+    public String getName(int i) { return names[i]; }
+    public String getEmail(int i) { return emails[i]; }
+    public int getSkillRating(int i) { return skill[i]; }
+    public int getPersonalityScore(int i) { return score[i]; }
+    public int getGameCode(int i) { return game[i]; }
+    public int getRoleCode(int i) { return role[i]; }
+    public int getPersonalityCode(int i) { return personality[i]; }
+
+    public String getGame(int i) { return text(i, 0, GameType.CODES.value(game[i])); }
+    public String getRole(int i) { return text(i, 1, RoleType.CODES.value(role[i])); }
+    public String getPersonalityType(int i) { return text(i, 2, PersonalityType.CODES.value(personality[i])); }
+
+    private String text(int i, int column, String byCode) {
+        if (folded.isEmpty()) return byCode;
+        String[] f = folded.get(i);
+        return f == null || f[column] == null ? byCode : f[column];
+    }
+
+    public Participant toParticipant(int i) {
+        return new Participant(ids[i], names[i], emails[i], getGame(i), getRole(i),
+                skill[i], score[i], getPersonalityType(i));
+    }
+
+    public List<Participant> toParticipants() {
+        List<Participant> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(toParticipant(i));
+        return out;
+    }
+
+    // ---- aggregate counts by code (index = dictionary code) ----
+    public int[] countByGame() { return countCodes(game, GameType.CODES.size()); }
+    public int[] countByRole() { return countCodes(role, RoleType.CODES.size()); }
+
+    public int[] countByPersonality() {
+        int[] counts = new int[PersonalityType.CODES.size()];
+        for (int i = 0; i < size; i++) counts[personality[i]]++;
+        return counts;
+    }
+
+    private int[] countCodes(short[] column, int codes) {
+        int[] counts = new int[codes];
+        for (int i = 0; i < size; i++) counts[column[i]]++;
+        return counts;
+    }
+}
@@ -0,0 +1,46 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+
+/** Exactly 1 Leader and 1-2 Thinkers; one unit per Leader off 1 and per Thinker outside 1-2. */
+public class PersonalityMixConstraint implements TeamConstraint {
+
+    static int mix(int leaders, int thinkers) {
+        return Math.abs(leaders - 1) + (thinkers < 1 ? 1 - thinkers : Math.max(0, thinkers - 2));
+    }
+
+    private static int leaders(Participant p) {
+        return p.getPersonalityCode() == PersonalityType.LEADER_CODE ? 1 : 0;
+    }
+
+    private static int thinkers(Participant p) {
+        return p.getPersonalityCode() == PersonalityType.THINKER_CODE ? 1 : 0;
+    }
+
+    private static int change(Team t, int dLeaders, int dThinkers) {
+        int l = t.personalityCount(PersonalityType.LEADER_CODE);
+        int th = t.personalityCount(PersonalityType.THINKER_CODE);
+        return mix(l + dLeaders, th + dThinkers) - mix(l, th);
+    }
+
+    @Override
+    public int violation(Team t) {
+        return mix(t.personalityCount(PersonalityType.LEADER_CODE), t.personalityCount(PersonalityType.THINKER_CODE));
+    }
+
+    @Override
+    public int addDelta(Team t, Participant p) {
+        return change(t, leaders(p), thinkers(p));
+    }
+
+    @Override
+    public int removeDelta(Team t, Participant p) {
+        return change(t, -leaders(p), -thinkers(p));
+    }
+
+    @Override
+    public int replaceDelta(Team t, Participant out, Participant in) {
+        return change(t, leaders(in) - leaders(out), thinkers(in) - thinkers(out));
+    }
+}
@@ -0,0 +1,95 @@
+package com.teamMate.core;
+
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Content hash of the participant pool, kept current through {@link RegistryListener}.
+ * Each participant hashes the fields formation depends on (id, game, role, skill, personality);
+ * the pool hash is the sum of those, so adds, removals and edits are O(1). The sum ignores the
+ * order participants were added in, while seeded formation does not, so a pool formed under this
+ * key must first be put in {@link #canonicalOrder}. Name and email edits leave it unchanged.
+ *
+ * Two differently mixed 64-bit sums plus the count are kept, which makes an accidental
+ * match between two different pools practically impossible.
+ * {@link #membershipVersion()} moves on every add or removal but not on edits; it tells a
+ * holder of Participant references whether those objects can still be the registered ones.
+ */
+public class PoolFingerprint implements RegistryListener {
+
+    private long count;
+    private long sumA;
+    private long sumB;
+    private long membership;
+
+    @Override
+    public synchronized void added(Participant p) {
+        membership++;
+        include(p, 1);
+    }
+
+    @Override
+    public synchronized void addedAll(List<Participant> ps) {
+        for (Participant p : ps) added(p);
+    }
+
+    @Override
+    public synchronized void removed(Participant p) {
+        membership++;
+        include(p, -1);
+    }
+
+    @Override
+    public synchronized void updating(Participant p) {
+        include(p, -1);
+    }
+
+    @Override
+    public synchronized void updated(Participant p) {
+        include(p, 1);
+    }
+
+    private void include(Participant p, int sign) {
+        long h = hash(p);
+        count += sign;
+        sumA += sign * mix(h);
+        sumB += sign * mix(h ^ 0x5DEECE66DL);
+    }
+
+    public synchronized long count() { return count; }
+    public synchronized long hashA() { return sumA; }
+    public synchronized long hashB() { return sumB; }
+    public synchronized long membershipVersion() { return membership; }
+
+    /** A copy of {@code pool} sorted by id, so equal fingerprints mean equal formation input. */
+    public static List<Participant> canonicalOrder(List<Participant> pool) {
+        List<Participant> sorted = new ArrayList<>(pool);
+        sorted.sort(Comparator.comparing(Participant::getId));
+        return sorted;
+    }
+
+    private static long hash(Participant p) {
+        // dictionary display values rather than codes: codes of unseen values depend on load order,
+        // and a persisted cache entry must still match in the next session
+        String id = p.getId();
+        long h = mix(id.hashCode() ^ ((long) id.length() << 32));
+        h = mix(h + GameType.CODES.value(p.getGameCode()).hashCode());
+        h = mix(h + RoleType.CODES.value(p.getRoleCode()).hashCode());
+        h = mix(h + PersonalityType.CODES.value(p.getPersonalityCode()).hashCode());
+        h = mix(h + ((long) p.getSkillRating() << 32 | p.getPersonalityScore()));
+        return h;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
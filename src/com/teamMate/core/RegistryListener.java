@@ -0,0 +1,34 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+import java.util.List;
+
+/**
+ * Observer of a ParticipantRegistry. Callbacks run on the mutating thread while the registry
+ * holds the locks of that participant's id and email, so a listener sees every change exactly
+ * once and each participant's changes in order. Changes to different participants can arrive
+ * on several threads at once: listeners guard their own state.
+ * By default an edit is reported as a removal of the old state followed by an add of the new one.
+ */
+public interface RegistryListener {
+
+    void added(Participant p);
+
+    /** Called once for a bulk load (see ParticipantRegistry#addAll); by default one added() each. */
+    default void addedAll(List<Participant> ps) {
+        for (Participant p : ps) added(p);
+    }
+
+    void removed(Participant p);
+
+    /** Called just before {@code p} is edited; p still holds its old values. */
+    default void updating(Participant p) {
+        removed(p);
+    }
+
+    /** Called right after {@code p} was edited. */
+    default void updated(Participant p) {
+        added(p);
+    }
+}
@@ -0,0 +1,42 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+/** At least {@code target} distinct roles (or the team size, if smaller); one unit per missing role. */
+public class RoleDiversityConstraint implements TeamConstraint {
+
+    private final int target;
+
+    public RoleDiversityConstraint(int target) {
+        this.target = Math.max(1, target);
+    }
+
+    private int missing(int size, int distinct) {
+        return Math.max(0, Math.min(target, size) - distinct);
+    }
+
+    @Override
+    public int violation(Team t) {
+        return missing(t.size(), t.distinctRoles());
+    }
+
+    @Override
+    public int addDelta(Team t, Participant p) {
+        int distinct = t.distinctRoles() + (t.roleCount(p.getRoleCode()) == 0 ? 1 : 0);
+        return missing(t.size() + 1, distinct) - violation(t);
+    }
+
+    @Override
+    public int removeDelta(Team t, Participant p) {
+        int distinct = t.distinctRoles() - (t.roleCount(p.getRoleCode()) == 1 ? 1 : 0);
+        return missing(t.size() - 1, distinct) - violation(t);
+    }
+
+    @Override
+    public int replaceDelta(Team t, Participant out, Participant in) {
+        int r = out.getRoleCode(), s = in.getRoleCode();
+        if (r == s) return 0;
+        int distinct = t.distinctRoles() - (t.roleCount(r) == 1 ? 1 : 0) + (t.roleCount(s) == 0 ? 1 : 0);
+        return missing(t.size(), distinct) - violation(t);
+    }
+}
@@ -0,0 +1,193 @@
+package com.teamMate.core;
+
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.Participant;
+import com.teamMate.model.RoleType;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Raises teams to at least 3 distinct roles by swapping members between teams.
+ * A role -> participant index (with a participant -> team owner map) finds swap partners
+ * without scanning other teams: for each role a deficient team is missing, a bounded number
+ * of candidates is probed from the front of that role's queue and rotated to the back.
+ * Only when no probed candidate fits are the missing roles' whole queues scanned, so a team is
+ * left deficient only if no member of any other team can be swapped in (the same outcome as
+ * an exhaustive pairwise search, at the cost of one queue per missing role).
+ * Swaps never make a diverse donor team non-diverse and never worsen a hard rule of the
+ * ConstraintSet (the game cap by default), so the number of diverse teams only grows.
+ * After {@link #index}, the index can be kept current with {@link #track}/{@link #untrack}
+ * so single teams are repaired without rescanning the pool (see TeamMaintainer).
+ */
+class RoleDiversityEnforcer {
+
+    static final int TARGET_ROLES = 3;
+    private static final int MAX_PROBES = 32;
+
+    private final ConstraintSet constraints;
+    private final int maxSkillDelta;
+    // each participant's current queue entry; replaced or forgotten entries are marked dead
+    private final Map<Participant, Slot> slots = new IdentityHashMap<>();
+    private final List<ArrayDeque<Slot>> byRole = new ArrayList<>();
+    // teams left below the role target because no swap partner was found
+    private int failed;
+    // told about both teams of every swap (e.g. to refresh dashboard stats); may be null
+    private Consumer<Team> onSwap;
+
+    RoleDiversityEnforcer(int maxSameGamePerTeam) {
+        this(ConstraintSet.standard(maxSameGamePerTeam));
+    }
+
+    RoleDiversityEnforcer(ConstraintSet constraints) {
+        this(constraints, Integer.MAX_VALUE);
+    }
+
+    /** @param maxSkillDelta largest skill difference allowed between the two swapped members */
+    RoleDiversityEnforcer(ConstraintSet constraints, int maxSkillDelta) {
+        this.constraints = constraints;
+        this.maxSkillDelta = Math.max(0, maxSkillDelta);
+    }
+
+    void setSwapListener(Consumer<Team> onSwap) {
+        this.onSwap = onSwap;
+    }
+
+    /** Returns the number of swaps made. */
+    int enforce(List<Team> teams) {
+        index(teams);
+        int swaps = 0;
+        failed = 0;
+        for (Team t : teams) swaps += repair(t);
+        Metrics.add("diversity.swaps", swaps);
+        Metrics.add("diversity.failed_swaps", failed);
+        return swaps;
+    }
+
+    /** Builds the role index and owner map; {@link #repair} can then be called per team. */
+    void index(List<Team> teams) {
+        byRole.clear();
+        for (int r = 0; r < RoleType.CODES.size(); r++) byRole.add(new ArrayDeque<>());
+        slots.clear();
+        for (Team t : teams) {
+            for (Participant p : t.getMembers()) track(p, t);
+        }
+    }
+
+    /** Records that {@code p} now sits in {@code t}; reuses its queue entry if the role is unchanged. */
+    void track(Participant p, Team t) {
+        int r = p.getRoleCode();
+        Slot s = slots.get(p);
+        if (s != null && s.role == r) {
+            s.team = t;
+            return;
+        }
+        while (byRole.size() <= r) byRole.add(new ArrayDeque<>());
+        if (s != null) s.dead = true;
+        s = new Slot(p, r, t);
+        slots.put(p, s);
+        byRole.get(r).add(s);
+    }
+
+    /** Takes {@code p} out of play; its queue entry stays (skipped) until it is tracked again. */
+    void untrack(Participant p) {
+        Slot s = slots.get(p);
+        if (s != null) s.team = null;
+    }
+
+    /** Forgets {@code p} for good; its queue entry is dropped lazily the next time it is probed. */
+    void forget(Participant p) {
+        Slot s = slots.remove(p);
+        if (s != null) s.dead = true;
+    }
+
+    Team ownerOf(Participant p) {
+        Slot s = slots.get(p);
+        return s == null ? null : s.team;
+    }
+
+    /** Raises one team towards the role target; returns the number of swaps made. */
+    int repair(Team t) {
+        int swaps = 0;
+        while (t.distinctRoles() < Math.min(TARGET_ROLES, t.size())) {
+            if (!gainRole(t)) {
+                failed++;
+                break;
+            }
+            swaps++;
+        }
+        return swaps;
+    }
+
+    private boolean gainRole(Team t) {
+        // t only gains a role if the member it gives away has a duplicate role in t
+        List<Participant> givers = new ArrayList<>();
+        for (Participant p : t.getMembers()) {
+            if (t.roleCount(p.getRoleCode()) >= 2) givers.add(p);
+        }
+        if (givers.isEmpty()) return false;
+        return gainRole(t, givers, MAX_PROBES) || gainRole(t, givers, Integer.MAX_VALUE);
+    }
+
+    // probes up to maxProbes live candidates of each missing role, rotating them to the back
+    private boolean gainRole(Team t, List<Participant> givers, int maxProbes) {
+        for (int r = 0; r < byRole.size(); r++) {
+            ArrayDeque<Slot> queue = byRole.get(r);
+            if (t.roleCount(r) > 0 || queue.isEmpty()) continue;
+            int probes = Math.min(maxProbes, queue.size());
+            for (int i = 0; i < probes; i++) {
+                Slot other = queue.poll();
+                Participant pOther = other.p;
+                // stale entry: withdrawn, or re-indexed under a new role after an edit
+                if (other.dead) continue;
+                queue.add(other);
+                Team donor = other.team;
+                if (donor == null || donor == t) continue;
+                for (Participant pThis : givers) {
+                    if (Math.abs(pThis.getSkillRating() - pOther.getSkillRating()) <= maxSkillDelta
+                            && donorKeepsDiversity(donor, pOther, pThis) && canSwap(t, donor, pThis, pOther)) {
+                        t.replaceMember(pThis, pOther);
+                        donor.replaceMember(pOther, pThis);
+                        other.team = t;
+                        slots.get(pThis).team = donor;
+                        if (onSwap != null) {
+                            onSwap.accept(t);
+                            onSwap.accept(donor);
+                        }
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean donorKeepsDiversity(Team donor, Participant out, Participant in) {
+        int before = donor.distinctRoles();
+        int after = before;
+        if (out.getRoleCode() != in.getRoleCode()) {
+            if (donor.roleCount(out.getRoleCode()) == 1) after--;
+            if (donor.roleCount(in.getRoleCode()) == 0) after++;
+        }
+        // a diverse donor must stay diverse; a deficient donor may give its role away
+        return before < TARGET_ROLES || after >= TARGET_ROLES;
+    }
+
+    boolean canSwap(Team a, Team b, Participant pa, Participant pb) {
+        return constraints.allowsSwap(a, b, pa, pb);
+    }
+
+    /** One role queue entry; {@code team} is null while the participant is detached. */
+    private static final class Slot {
+        final Participant p;
+        final int role;
+        Team team;
+        boolean dead;
+
+        Slot(Participant p, int role, Team team) {
+            this.p = p;
+            this.role = role;
+            this.team = team;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.teamMate.core;
+
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Team formation for very large pools: the pool is split into shards with the same
+ * game/role/personality mix, each shard is formed by its own TeamBuilder in parallel,
+ * and a light cross-shard pass re-forms the undersized teams and anyone a shard could not place.
+ *
+ * Shards are stratified: the pool is counting-sorted by (game, role, personality) and dealt
+ * round-robin, so shard sizes differ by at most one and every stratum is split evenly.
+ * Shard i is built with seed MultiSeedFormation.seedForRun(seed, i): the result is
+ * reproducible for a given seed and shard count, whatever the thread budget.
+ */
+public class ShardedFormation {
+
+    // below this a shard costs more in leftovers than it saves in time
+    static final int MIN_SHARD_SIZE = 2000;
+    // full teams offered as swap partners per re-formed team in the cross-shard repair
+    private static final int DONORS_PER_TEAM = 4;
+
+    /** Full teams of one shard plus everyone left over (undersized teams and unplaced). */
+    private static class ShardResult {
+        final List<Team> full = new ArrayList<>();
+        final List<Participant> rest = new ArrayList<>();
+    }
+
+    public static List<Team> build(List<Participant> pool, int teamSize, int maxSameGamePerTeam, long seed, int shards)
+            throws InterruptedException, ExecutionException {
+        return build(pool, teamSize, ConstraintSet.standard(maxSameGamePerTeam), seed, shards);
+    }
+
+    public static List<Team> build(List<Participant> pool, int teamSize, ConstraintSet constraints, long seed, int shards)
+            throws InterruptedException, ExecutionException {
+        return build(pool, teamSize, constraints, seed, shards, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads shards built at once; callers that already run in parallel (e.g.
+     *                MultiSeedFormation) pass their share of the cores, 1 builds shards inline
+     */
+    public static List<Team> build(List<Participant> pool, int teamSize, ConstraintSet constraints, long seed, int shards,
+                                   int threads) throws InterruptedException, ExecutionException {
+        int size = Math.max(2, teamSize);
+        int n = Math.max(1, Math.min(shards, pool.size() / MIN_SHARD_SIZE));
+        long phase = System.nanoTime();
+        List<List<Participant>> parts = partition(pool, n);
+        phase = Metrics.lap("sharded.partition", phase);
+
+        List<Callable<ShardResult>> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            final List<Participant> part = parts.get(i);
+            final long shardSeed = MultiSeedFormation.seedForRun(seed, i);
+            tasks.add(() -> buildShard(part, size, constraints, shardSeed));
+        }
+        List<ShardResult> built = new ArrayList<>(n);
+        int parallelism = Math.min(n, Math.max(1, threads));
+        if (parallelism == 1) {
+            for (int i = 0; i < n; i++) built.add(buildShard(parts.get(i), size, constraints, MultiSeedFormation.seedForRun(seed, i)));
+        } else {
+            ForkJoinPool fj = new ForkJoinPool(parallelism);
+            try {
+                for (Future<ShardResult> f : fj.invokeAll(tasks)) built.add(f.get());
+            } finally {
+                fj.shutdown();
+            }
+        }
+        phase = Metrics.lap("sharded.build", phase);
+        List<Team> teams = merge(built, size, constraints, MultiSeedFormation.seedForRun(seed, n));
+        Metrics.lap("sharded.merge", phase);
+        return teams;
+    }
+
+    /** Stratified split: counting sort by (game, role, personality), then deal round-robin. */
+    static List<List<Participant>> partition(List<Participant> pool, int shards) {
+        int roles = Math.max(1, RoleType.CODES.size());
+        int kinds = Math.max(1, PersonalityType.CODES.size());
+        int[] keys = new int[pool.size()];
+        int strata = 0;
+        for (int i = 0; i < keys.length; i++) {
+            Participant p = pool.get(i);
+            keys[i] = (p.getGameCode() * roles + p.getRoleCode()) * kinds + p.getPersonalityCode();
+            strata = Math.max(strata, keys[i] + 1);
+        }
+        // next[k] = position in the sorted order of the next participant of stratum k
+        int[] next = new int[strata];
+        for (int k : keys) next[k]++;
+        for (int k = 0, pos = 0; k < strata; k++) {
+            int count = next[k];
+            next[k] = pos;
+            pos += count;
+        }
+
+        List<List<Participant>> parts = new ArrayList<>(shards);
+        for (int s = 0; s < shards; s++) parts.add(new ArrayList<>(keys.length / shards + 1));
+        for (int i = 0; i < keys.length; i++) {
+            parts.get(next[keys[i]]++ % shards).add(pool.get(i));
+        }
+        return parts;
+    }
+
+    private static ShardResult buildShard(List<Participant> part, int teamSize, ConstraintSet constraints, long seed) {
+        ShardResult r = new ShardResult();
+        Set<Participant> placed = Collections.newSetFromMap(new IdentityHashMap<>(part.size() * 2));
+        for (Team t : new TeamBuilder(part, teamSize, constraints, seed).buildTeams()) {
+            if (t.size() >= teamSize) {
+                r.full.add(t);
+                placed.addAll(t.getMembers());
+            }
+        }
+        for (Participant p : part) {
+            if (!placed.contains(p)) r.rest.add(p);
+        }
+        return r;
+    }
+
+    /**
+     * Keeps every full shard team, re-forms the leftovers of all shards together, repairs the
+     * re-formed teams' role mix against a sample of full teams and seats anyone still unplaced.
+     */
+    private static List<Team> merge(List<ShardResult> built, int teamSize, ConstraintSet constraints, long seed) {
+        List<Team> teams = new ArrayList<>();
+        List<Participant> rest = new ArrayList<>();
+        int nextId = 1;
+        for (ShardResult r : built) {
+            // renumber so ids are unique across shards
+            for (Team t : r.full) teams.add(new Team(nextId++, t));
+            rest.addAll(r.rest);
+        }
+        if (rest.isEmpty()) return teams;
+        Metrics.add("sharded.rest", rest.size());
+
+        List<Team> reformed = new ArrayList<>();
+        Set<Participant> seated = Collections.newSetFromMap(new IdentityHashMap<>(rest.size() * 2));
+        for (Team t : new TeamBuilder(rest, teamSize, constraints, seed).buildTeams()) {
+            if (t.size() == 0) continue;
+            reformed.add(new Team(nextId++, t));
+            seated.addAll(t.getMembers());
+        }
+
+        // cross-shard role repair: re-formed teams may swap with an evenly spread sample of full teams
+        List<Team> repairSet = new ArrayList<>(reformed);
+        int donors = Math.min(teams.size(), DONORS_PER_TEAM * reformed.size());
+        for (int i = 0; i < donors; i++) repairSet.add(teams.get((int) ((long) i * teams.size() / donors)));
+        RoleDiversityEnforcer enforcer = new RoleDiversityEnforcer(constraints);
+        enforcer.index(repairSet);
+        for (Team t : reformed) enforcer.repair(t);
+
+        // anyone still unseated joins like a late joiner; only re-formed teams can have room
+        TeamMaintainer maintainer = null;
+        for (Participant p : rest) {
+            if (seated.contains(p)) continue;
+            if (maintainer == null) maintainer = new TeamMaintainer(reformed, teamSize, constraints);
+            maintainer.addLateJoiner(p);
+        }
+        teams.addAll(reformed);
+        return teams;
+    }
+}
@@ -0,0 +1,48 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+/**
+ * Strongest and weakest member at most {@code maxGap} skill points apart; one unit per point over.
+ * Uses Team's skill histogram, so deltas cost one pass over the 1-10 scale at most.
+ */
+public class SkillGapConstraint implements TeamConstraint {
+
+    private final int maxGap;
+
+    public SkillGapConstraint(int maxGap) {
+        this.maxGap = Math.max(0, maxGap);
+    }
+
+    private int over(int lo, int hi) {
+        return lo < 0 ? 0 : Math.max(0, hi - lo - maxGap);
+    }
+
+    @Override
+    public int violation(Team t) {
+        return over(t.minSkill(-1), t.maxSkill(-1));
+    }
+
+    @Override
+    public int addDelta(Team t, Participant p) {
+        int s = p.getSkillRating();
+        int lo = t.minSkill(-1), hi = t.maxSkill(-1);
+        int before = over(lo, hi);
+        if (lo < 0) return 0;
+        return over(Math.min(lo, s), Math.max(hi, s)) - before;
+    }
+
+    @Override
+    public int removeDelta(Team t, Participant p) {
+        int s = p.getSkillRating();
+        return over(t.minSkill(s), t.maxSkill(s)) - violation(t);
+    }
+
+    @Override
+    public int replaceDelta(Team t, Participant out, Participant in) {
+        int s = in.getSkillRating();
+        int lo = t.minSkill(out.getSkillRating()), hi = t.maxSkill(out.getSkillRating());
+        int after = lo < 0 ? 0 : over(Math.min(lo, s), Math.max(hi, s));
+        return after - violation(t);
+    }
+}
@@ -1,35 +1,153 @@
 package com.teamMate.core;
 
+import com.teamMate.model.CodeDictionary;
+import com.teamMate.model.GameType;
 import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 public class Team {
     private static final AtomicInteger nextId = new AtomicInteger(1);
     private final int teamId;
     private final List<Participant> members = new ArrayList<>();
 
+    // running aggregates, indexed by dictionary code; updated on every add/remove/replace.
+    // A member's game/role/personality must not be edited while it sits in a team.
+    private int[] gameCounts = new int[GameType.CODES.size()];
+    private int[] roleCounts = new int[RoleType.CODES.size()];
+    private int[] personalityCounts = new int[PersonalityType.CODES.size()];
+    // members per skill rating, for O(1) lowest/highest skill over the bounded 1-10 scale
+    private int[] skillCounts = new int[11];
+    private int distinctRoles;
+    private long skillSum;
+
     public Team() {
         this.teamId = nextId.getAndIncrement();
     }
 
+    public Team(int teamId) {
+        this.teamId = teamId;
+    }
+
+    /** Copy of {@code from} under a new id; counters are copied, not recomputed. */
+    Team(int teamId, Team from) {
+        this.teamId = teamId;
+        this.members.addAll(from.members);
+        this.gameCounts = from.gameCounts.clone();
+        this.roleCounts = from.roleCounts.clone();
+        this.personalityCounts = from.personalityCounts.clone();
+        this.skillCounts = from.skillCounts.clone();
+        this.distinctRoles = from.distinctRoles;
+        this.skillSum = from.skillSum;
+    }
+
     public int getTeamId() { return teamId; }
-    public List<Participant> getMembers() { return members; }
-    public void addMember(Participant p) { members.add(p); }
+    public List<Participant> getMembers() { return Collections.unmodifiableList(members); }
+    public int size() { return members.size(); }
+
+    public void addMember(Participant p) {
+        members.add(p);
+        track(p, 1);
+    }
+
+    public boolean removeMember(Participant p) {
+        if (!members.remove(p)) return false;
+        track(p, -1);
+        return true;
+    }
+
+    /** Puts {@code in} at {@code out}'s position. Returns false if {@code out} is not a member. */
+    public boolean replaceMember(Participant out, Participant in) {
+        int i = members.indexOf(out);
+        if (i < 0) return false;
+        members.set(i, in);
+        track(out, -1);
+        track(in, 1);
+        return true;
+    }
+
+    /** O(1) positional replace; returns the member that was at {@code index}. */
+    public Participant replaceMemberAt(int index, Participant in) {
+        Participant out = members.set(index, in);
+        track(out, -1);
+        track(in, 1);
+        return out;
+    }
+
+    /** O(1) positional removal: the last member takes the freed slot. */
+    public Participant removeMemberAt(int index) {
+        int last = members.size() - 1;
+        Participant out = members.get(index);
+        members.set(index, members.get(last));
+        members.remove(last);
+        track(out, -1);
+        return out;
+    }
+
+    private void track(Participant p, int delta) {
+        int g = p.getGameCode(), r = p.getRoleCode(), k = p.getPersonalityCode();
+        if (g >= gameCounts.length) gameCounts = Arrays.copyOf(gameCounts, Math.max(g + 1, gameCounts.length * 2));
+        if (r >= roleCounts.length) roleCounts = Arrays.copyOf(roleCounts, Math.max(r + 1, roleCounts.length * 2));
+        if (k >= personalityCounts.length) personalityCounts = Arrays.copyOf(personalityCounts, Math.max(k + 1, personalityCounts.length * 2));
+        gameCounts[g] += delta;
+        personalityCounts[k] += delta;
+        int before = roleCounts[r];
+        roleCounts[r] += delta;
+        if (before == 0 && roleCounts[r] > 0) distinctRoles++;
+        else if (before > 0 && roleCounts[r] == 0) distinctRoles--;
+        int s = Math.max(0, p.getSkillRating());
+        if (s >= skillCounts.length) skillCounts = Arrays.copyOf(skillCounts, s + 1);
+        skillCounts[s] += delta;
+        skillSum += (long) delta * p.getSkillRating();
+    }
+
+    public int gameCount(int gameCode) { return gameCode < gameCounts.length ? gameCounts[gameCode] : 0; }
+    public int roleCount(int roleCode) { return roleCode < roleCounts.length ? roleCounts[roleCode] : 0; }
+    public int personalityCount(int personalityCode) {
+        return personalityCode < personalityCounts.length ? personalityCounts[personalityCode] : 0;
+    }
+    public int distinctRoles() { return distinctRoles; }
+    public long skillSum() { return skillSum; }
+    public int skillCount(int skill) { return skill >= 0 && skill < skillCounts.length ? skillCounts[skill] : 0; }
+
+    /** Lowest member skill, ignoring one member of skill {@code except} (-1 for none); -1 if no one is left. */
+    public int minSkill(int except) {
+        for (int s = 0; s < skillCounts.length; s++) {
+            if (skillCounts[s] - (s == except ? 1 : 0) > 0) return s;
+        }
+        return -1;
+    }
+
+    /** Highest member skill, ignoring one member of skill {@code except} (-1 for none); -1 if no one is left. */
+    public int maxSkill(int except) {
+        for (int s = skillCounts.length - 1; s >= 0; s--) {
+            if (skillCounts[s] - (s == except ? 1 : 0) > 0) return s;
+        }
+        return -1;
+    }
 
     public double averageSkill() {
         if (members.isEmpty()) return 0.0;
-        return members.stream().mapToInt(Participant::getSkillRating).average().orElse(0.0);
+        return (double) skillSum / members.size();
     }
 
     public Map<String, Long> roleCounts() {
-        return members.stream().collect(Collectors.groupingBy(Participant::getRole, Collectors.counting()));
+        return namedCounts(roleCounts, RoleType.CODES);
     }
 
     public Map<String, Long> gameCounts() {
-        return members.stream().collect(Collectors.groupingBy(Participant::getGame, Collectors.counting()));
+        return namedCounts(gameCounts, GameType.CODES);
+    }
+
+    private static Map<String, Long> namedCounts(int[] counts, CodeDictionary codes) {
+        Map<String, Long> named = new HashMap<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) named.put(codes.value(c), (long) counts[c]);
+        }
+        return named;
     }
 
     @Override
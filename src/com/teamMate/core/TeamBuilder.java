@@ -1,35 +1,62 @@
 package com.teamMate.core;
 
+import com.teamMate.metrics.Metrics;
 import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Builds teams trying to satisfy:
  * - game diversity (cap per game)
  * - role diversity (aim at least 3 distinct roles)
  * - personality mix (1 Leader, 1-2 Thinkers, rest Balanced)
+ * Every placement must pass the hard rules of the ConstraintSet (by default just the game
+ * cap); the passes above aim at the standard soft rules, custom soft rules are left to
+ * TeamOptimizer.
  * This is a heuristic algorithm — not exhaustive optimal.
  */
 public class TeamBuilder {
 
     private final List<Participant> pool;
     private final int teamSize;
-    private final int maxSameGamePerTeam;
-    private final Random rnd = new Random();
+    private final ConstraintSet constraints;
+    private final Random rnd;
 
     public TeamBuilder(List<Participant> pool, int teamSize, int maxSameGamePerTeam) {
+        this(pool, teamSize, ConstraintSet.standard(maxSameGamePerTeam), new Random());
+    }
+
+    /** Seeded builder: the same pool order, parameters and seed always give the same teams. */
+    public TeamBuilder(List<Participant> pool, int teamSize, int maxSameGamePerTeam, long seed) {
+        this(pool, teamSize, ConstraintSet.standard(maxSameGamePerTeam), new Random(seed));
+    }
+
+    public TeamBuilder(List<Participant> pool, int teamSize, ConstraintSet constraints, long seed) {
+        this(pool, teamSize, constraints, new Random(seed));
+    }
+
+    private TeamBuilder(List<Participant> pool, int teamSize, ConstraintSet constraints, Random rnd) {
         this.pool = new ArrayList<>(pool);
         this.teamSize = Math.max(2, teamSize);
-        this.maxSameGamePerTeam = Math.max(1, maxSameGamePerTeam);
+        this.constraints = constraints;
+        this.rnd = rnd;
+    }
+
+    /** Convenience for a loaded table: materializes one Participant per row, then builds as usual. */
+    public TeamBuilder(ParticipantTable table, int teamSize, int maxSameGamePerTeam) {
+        this(table.toParticipants(), teamSize, maxSameGamePerTeam);
     }
 
     public List<Team> buildTeams() {
+        long start = System.nanoTime();
+        long phase = start;
+        int rejected = 0;
         Collections.shuffle(pool, rnd);
         int totalTeams = (int) Math.ceil((double) pool.size() / teamSize);
         List<Team> teams = new ArrayList<>();
-        for (int i = 0; i < totalTeams; i++) teams.add(new Team());
+        // teams are numbered per build so seeded runs are reproducible
+        for (int i = 0; i < totalTeams; i++) teams.add(new Team(i + 1));
 
         // split by personality
         Queue<Participant> leaders = new ArrayDeque<>();
@@ -38,33 +65,35 @@ public class TeamBuilder {
         Queue<Participant> unknown = new ArrayDeque<>();
 
         for (Participant p : pool) {
-            switch (p.getPersonalityType()) {
-                case "Leader": leaders.add(p); break;
-                case "Thinker": thinkers.add(p); break;
-                case "Balanced": balanced.add(p); break;
-                default: unknown.add(p); break;
-            }
+            int code = p.getPersonalityCode();
+            if (code == PersonalityType.LEADER_CODE) leaders.add(p);
+            else if (code == PersonalityType.THINKER_CODE) thinkers.add(p);
+            else if (code == PersonalityType.BALANCED_CODE) balanced.add(p);
+            else unknown.add(p);
         }
+        phase = Metrics.lap("formation.split", phase);
 
         // First pass: ensure at least one leader per team where possible
         for (Team t : teams) {
             if (!leaders.isEmpty()) {
                 Participant p = leaders.poll();
                 if (canAddToTeam(t, p)) t.addMember(p);
-                else { /* if not allowed due to game cap, push to end */ leaders.add(p); }
+                else { /* if not allowed due to game cap, push to end */ leaders.add(p); rejected++; }
             }
         }
+        phase = Metrics.lap("formation.leaders", phase);
 
         // Second pass: try to place thinkers and balanced to guarantee personality mix
         for (Team t : teams) {
             assignIfPossible(t, thinkers);
             assignIfPossible(t, balanced);
         }
+        phase = Metrics.lap("formation.personality", phase);
 
         // Fill remaining spots with any available participants maintaining constraints
         List<Queue<Participant>> queues = Arrays.asList(leaders, thinkers, balanced, unknown);
         for (Team t : teams) {
-            while (t.getMembers().size() < teamSize) {
+            while (t.size() < teamSize) {
                 Participant candidate = pollAny(queues);
                 if (candidate == null) break;
                 if (canAddToTeam(t, candidate)) {
@@ -72,31 +101,228 @@ public class TeamBuilder {
                 } else {
                     // try to place candidate later: push to fallback list
                     // we'll try other teams; so we skip candidate for now
+                    rejected++;
                 }
             }
         }
+        phase = Metrics.lap("formation.fill", phase);
 
         // final pass: place leftovers to any teams that still have room
         List<Participant> leftovers = new ArrayList<>();
         for (Queue<Participant> q : queues) while (!q.isEmpty()) leftovers.add(q.poll());
         Collections.shuffle(leftovers, rnd);
+        // only scan teams that still have room (same first-fit order as scanning all teams)
+        List<Team> withRoom = new ArrayList<>();
+        for (Team t : teams) if (t.size() < teamSize) withRoom.add(t);
+        int unplaced = 0;
         for (Participant p : leftovers) {
-            for (Team t : teams) {
-                if (t.getMembers().size() < teamSize && canAddToTeam(t, p)) {
+            boolean added = false;
+            for (int i = 0; i < withRoom.size(); i++) {
+                Team t = withRoom.get(i);
+                if (canAddToTeam(t, p)) {
                     t.addMember(p);
+                    if (t.size() >= teamSize) withRoom.remove(i);
+                    added = true;
                     break;
                 }
             }
+            if (!added) unplaced++;
         }
+        phase = Metrics.lap("formation.leftovers", phase);
 
         // attempt to increase role diversity per team: try swapping if role count < 3
-        enforceRoleDiversity(teams);
+        new RoleDiversityEnforcer(constraints).enforce(teams);
+        phase = Metrics.lap("formation.diversity", phase);
 
+        Metrics.add("formation.rejected_placements", rejected);
+        Metrics.add("formation.unplaced", unplaced);
+        recordRun(start, phase);
         return teams;
     }
 
+    // probes per draft pick before the personality-mix preference is dropped
+    private static final int MAX_DRAFT_PROBES = 64;
+
+    private static final Comparator<Team> WEAKEST_FIRST = Comparator
+            .comparingLong(Team::skillSum)
+            .thenComparingInt(Team::size)
+            .thenComparingInt(Team::getTeamId);
+
+    /**
+     * Skill-balanced formation: participants are drafted strongest first into the weakest
+     * eligible team (min-heap on team skill sum). Personality passes mirror buildTeams:
+     * one Leader per team, then one Thinker per team, then everyone else in skill order,
+     * preferring teams that stay within 1 Leader / 2 Thinkers and otherwise the weakest team
+     * the game cap allows. Heap probes per pick are bounded; whoever the probed teams all
+     * reject gets a full scan afterwards (see placeStragglers) and is counted in
+     * formation.unplaced if no team can take them.
+     * O(n log T) apart from the bounded probes and the stragglers' scans.
+     */
+    public List<Team> buildBalancedTeams() {
+        long start = System.nanoTime();
+        Collections.shuffle(pool, rnd); // random tie order among equal skills
+        int totalTeams = (int) Math.ceil((double) pool.size() / teamSize);
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < totalTeams; i++) teams.add(new Team(i + 1));
+
+        List<Participant> leaders = new ArrayList<>();
+        List<Participant> thinkers = new ArrayList<>();
+        List<Participant> rest = new ArrayList<>();
+        for (Participant p : pool) {
+            int code = p.getPersonalityCode();
+            if (code == PersonalityType.LEADER_CODE) leaders.add(p);
+            else if (code == PersonalityType.THINKER_CODE) thinkers.add(p);
+            else rest.add(p);
+        }
+        Comparator<Participant> strongestFirst = Comparator.comparingInt(Participant::getSkillRating).reversed();
+
+        // one-per-team passes: a team leaves the heap once it has received its pick
+        List<Participant> later = new ArrayList<>();
+        later.addAll(draftOnePerTeam(teams, leaders, strongestFirst));
+        later.addAll(draftOnePerTeam(teams, thinkers, strongestFirst));
+
+        later.addAll(rest);
+        later.sort(strongestFirst);
+        PriorityQueue<Team> heap = new PriorityQueue<>(WEAKEST_FIRST);
+        for (Team t : teams) if (t.size() < teamSize) heap.add(t);
+        // once the weakest MAX_DRAFT_PROBES teams all reject a personality, stop preferring the mix for it
+        boolean[] mixExhausted = new boolean[PersonalityType.CODES.size()];
+        List<Participant> stragglers = new ArrayList<>();
+        for (Participant p : later) {
+            // prefer a team within the personality mix; otherwise the weakest team the game cap allows
+            int code = p.getPersonalityCode();
+            Team t = null;
+            if (code >= mixExhausted.length || !mixExhausted[code]) {
+                t = pollEligible(heap, p, true);
+                if (t == null && code < mixExhausted.length) mixExhausted[code] = true;
+            }
+            if (t == null) t = pollEligible(heap, p, false);
+            if (t == null) {
+                stragglers.add(p);
+                continue;
+            }
+            t.addMember(p);
+            if (t.size() < teamSize) heap.add(t);
+        }
+
+        Metrics.add("formation.unplaced", placeStragglers(teams, stragglers));
+
+        // diversity swaps only trade members of equal skill so the draft's balance is kept
+        new RoleDiversityEnforcer(constraints, 0).enforce(teams);
+        recordRun(start, System.nanoTime());
+        return teams;
+    }
+
+    /** Publishes the run time of a finished build. */
+    private void recordRun(long start, long end) {
+        Metrics.recordNanos("formation.total", end - start);
+        Metrics.increment("formation.runs");
+    }
+
+    /**
+     * Publishes the constraint satisfaction rates (formation.*_rate gauges) of a formation
+     * result. Called once for the result that is handed out, not per seeded run or shard,
+     * so the gauges describe what the organizer gets.
+     */
+    public static void recordRates(List<Team> teams, int teamSize) {
+        if (teams.isEmpty()) return;
+        int diverse = 0, mixed = 0, full = 0;
+        for (Team t : teams) {
+            if (t.distinctRoles() >= Math.min(RoleDiversityEnforcer.TARGET_ROLES, t.size())) diverse++;
+            if (t.personalityCount(PersonalityType.LEADER_CODE) == 1
+                    && t.personalityCount(PersonalityType.THINKER_CODE) >= 1
+                    && t.personalityCount(PersonalityType.THINKER_CODE) <= 2) mixed++;
+            if (t.size() >= teamSize) full++;
+        }
+        Metrics.gauge("formation.role_diversity_rate", (double) diverse / teams.size());
+        Metrics.gauge("formation.personality_mix_rate", (double) mixed / teams.size());
+        Metrics.gauge("formation.full_team_rate", (double) full / teams.size());
+    }
+
+    /** Difference between the highest and lowest averageSkill among non-empty teams. */
+    public static double skillSpread(List<Team> teams) {
+        double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+        for (Team t : teams) {
+            if (t.size() == 0) continue;
+            min = Math.min(min, t.averageSkill());
+            max = Math.max(max, t.averageSkill());
+        }
+        return min == Double.MAX_VALUE ? 0.0 : max - min;
+    }
+
+    // returns the participants that could not be drafted in this pass
+    private List<Participant> draftOnePerTeam(List<Team> teams, List<Participant> group, Comparator<Participant> order) {
+        group.sort(order);
+        PriorityQueue<Team> heap = new PriorityQueue<>(WEAKEST_FIRST);
+        for (Team t : teams) if (t.size() < teamSize) heap.add(t);
+        List<Participant> undrafted = new ArrayList<>();
+        for (Participant p : group) {
+            Team t = heap.isEmpty() ? null : pollEligible(heap, p, false);
+            if (t == null) undrafted.add(p);
+            else t.addMember(p);
+        }
+        return undrafted;
+    }
+
+    /**
+     * Pops the weakest team that can take p (returned team is out of the heap; skipped teams
+     * are put back). Gives up after MAX_DRAFT_PROBES, so someone the cap blocks everywhere
+     * does not drain and rebuild the whole heap.
+     */
+    private Team pollEligible(PriorityQueue<Team> heap, Participant p, boolean personalityLimits) {
+        List<Team> skipped = new ArrayList<>();
+        Team found = null;
+        int probes = MAX_DRAFT_PROBES;
+        while (!heap.isEmpty() && probes-- > 0) {
+            Team t = heap.poll();
+            if (canAddToTeam(t, p) && (!personalityLimits || withinPersonalityMix(t, p))) {
+                found = t;
+                break;
+            }
+            skipped.add(t);
+        }
+        heap.addAll(skipped);
+        return found;
+    }
+
+    /**
+     * Puts each straggler in the weakest team with room that takes them; returns how many
+     * stay unplaced. Once a scan finds no team for a participant, others with the same game,
+     * role, personality and skill skip the scan until someone is placed again, so a
+     * saturated game costs one scan per kind rather than one per participant.
+     */
+    private int placeStragglers(List<Team> teams, List<Participant> stragglers) {
+        Set<Long> hopeless = new HashSet<>();
+        int unplaced = 0;
+        for (Participant p : stragglers) {
+            long kind = ((long) p.getGameCode() << 40) | ((long) p.getRoleCode() << 20)
+                    | ((long) p.getPersonalityCode() << 8) | (p.getSkillRating() & 0xFF);
+            Team best = null;
+            if (!hopeless.contains(kind)) {
+                for (Team t : teams) {
+                    if (t.size() < teamSize && canAddToTeam(t, p) && (best == null || WEAKEST_FIRST.compare(t, best) < 0)) best = t;
+                }
+            }
+            if (best == null) {
+                hopeless.add(kind);
+                unplaced++;
+            } else {
+                best.addMember(p);
+                hopeless.clear();
+            }
+        }
+        return unplaced;
+    }
+
+    static boolean withinPersonalityMix(Team t, Participant p) {
+        int code = p.getPersonalityCode();
+        if (code == PersonalityType.LEADER_CODE) return t.personalityCount(code) < 1;
+        if (code == PersonalityType.THINKER_CODE) return t.personalityCount(code) < 2;
+        return true;
+    }
+
     private void assignIfPossible(Team t, Queue<Participant> q) {
-        if (t.getMembers().size() >= teamSize) return;
+        if (t.size() >= teamSize) return;
         Iterator<Participant> it = q.iterator();
         while (it.hasNext()) {
             Participant p = it.next();
@@ -117,46 +343,6 @@ public class TeamBuilder {
     }
 
     private boolean canAddToTeam(Team t, Participant p) {
-        long gameCount = t.getMembers().stream().filter(m -> m.getGame().equalsIgnoreCase(p.getGame())).count();
-        if (gameCount >= maxSameGamePerTeam) return false;
-        return true;
-    }
-
-    // Improve role diversity by swapping participants between teams where possible
-    private void enforceRoleDiversity(List<Team> teams) {
-        for (Team t : teams) {
-            Set<String> roles = t.getMembers().stream().map(Participant::getRole).collect(Collectors.toSet());
-            if (roles.size() >= 3) continue;
-            // try to find a participant in other teams with a role not present here and swap
-            for (Team other : teams) {
-                if (other == t) continue;
-                for (Participant pOther : new ArrayList<>(other.getMembers())) {
-                    if (!roles.contains(pOther.getRole())) {
-                        // find candidate in this team to swap (one whose role exists elsewhere)
-                        for (Participant pThis : new ArrayList<>(t.getMembers())) {
-                            if (t.getMembers().contains(pThis) && other.getMembers().contains(pOther)) {
-                                // ensure swap won't break game cap in either team
-                                if (canSwap(t, other, pThis, pOther)) {
-                                    t.getMembers().remove(pThis);
-                                    other.getMembers().remove(pOther);
-                                    t.getMembers().add(pOther);
-                                    other.getMembers().add(pThis);
-                                    roles = t.getMembers().stream().map(Participant::getRole).collect(Collectors.toSet());
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    if (roles.size() >= 3) break;
-                }
-                if (roles.size() >= 3) break;
-            }
-        }
-    }
-
-    private boolean canSwap(Team a, Team b, Participant pa, Participant pb) {
-        long aGameCountAfter = a.getMembers().stream().filter(m -> !m.equals(pa) && m.getGame().equalsIgnoreCase(pb.getGame())).count() + 1;
-        long bGameCountAfter = b.getMembers().stream().filter(m -> !m.equals(pb) && m.getGame().equalsIgnoreCase(pa.getGame())).count() + 1;
-        return aGameCountAfter <= maxSameGamePerTeam && bGameCountAfter <= maxSameGamePerTeam;
+        return constraints.allowsAdd(t, p);
     }
 }
@@ -0,0 +1,24 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+/**
+ * One team composition rule, measured in violation units (0 = satisfied).
+ * The delta methods answer "what if" for a single team without changing it and must be O(1)
+ * from Team's running counters; {@link #violation} may scan the team and is only used to
+ * seed incremental scoring. Rules are weighted and marked hard or soft in a ConstraintSet.
+ */
+public interface TeamConstraint {
+
+    /** Violation units of {@code t} as it stands. */
+    int violation(Team t);
+
+    /** Change in violation if {@code p} joins {@code t}. */
+    int addDelta(Team t, Participant p);
+
+    /** Change in violation if member {@code p} leaves {@code t}. */
+    int removeDelta(Team t, Participant p);
+
+    /** Change in violation if member {@code out} leaves {@code t} and {@code in} takes its place. */
+    int replaceDelta(Team t, Participant out, Participant in);
+}
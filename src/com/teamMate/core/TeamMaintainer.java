@@ -0,0 +1,150 @@
+package com.teamMate.core;
+
+import com.teamMate.model.Participant;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a formed team list current as participants join late, withdraw or edit their
+ * game/role/skill, touching only the teams involved instead of rebuilding everyone.
+ * The list passed in is updated in place (new teams are appended, emptied teams removed).
+ *
+ * Edits go through detach/reattach: call {@link #detach} before changing a member's
+ * game, role or skill (Team counters must not see the edit) and {@link #reattach} after.
+ * An optional team listener is told about every team whose members changed (an emptied,
+ * dropped team is reported with size 0).
+ */
+public class TeamMaintainer {
+
+    private final List<Team> teams;
+    private final int teamSize;
+    private final ConstraintSet constraints;
+    private final RoleDiversityEnforcer enforcer;
+    // teams below teamSize, the only candidates for new members
+    private final Set<Team> open = new LinkedHashSet<>();
+    private final Map<Participant, Team> detached = new IdentityHashMap<>();
+    private int nextTeamId;
+    private Consumer<Team> onTeamChange = t -> { };
+
+    public TeamMaintainer(List<Team> teams, int teamSize, int maxSameGamePerTeam) {
+        this(teams, teamSize, ConstraintSet.standard(maxSameGamePerTeam));
+    }
+
+    /** Placements and repairs never worsen a hard rule of {@code constraints}. */
+    public TeamMaintainer(List<Team> teams, int teamSize, ConstraintSet constraints) {
+        this.teams = teams;
+        this.teamSize = Math.max(2, teamSize);
+        this.constraints = constraints;
+        this.enforcer = new RoleDiversityEnforcer(constraints);
+        enforcer.index(teams);
+        for (Team t : teams) {
+            if (t.size() < this.teamSize) open.add(t);
+            nextTeamId = Math.max(nextTeamId, t.getTeamId());
+        }
+        nextTeamId++;
+    }
+
+    public void setTeamListener(Consumer<Team> onTeamChange) {
+        this.onTeamChange = onTeamChange == null ? t -> { } : onTeamChange;
+        enforcer.setSwapListener(onTeamChange);
+    }
+
+    public Team teamOf(Participant p) {
+        return enforcer.ownerOf(p);
+    }
+
+    /** Places a new participant in the best open team, or opens a new team. */
+    public Team addLateJoiner(Participant p) {
+        Team t = bestOpenTeam(p);
+        if (t == null) {
+            t = new Team(nextTeamId++);
+            teams.add(t);
+            open.add(t);
+        }
+        place(p, t);
+        enforcer.repair(t);
+        return t;
+    }
+
+    /** Removes a participant from its team; returns that team, or null if it was not placed. */
+    public Team withdraw(Participant p) {
+        Team t = detach(p);
+        detached.remove(p);
+        enforcer.forget(p);
+        if (t != null) settle(t);
+        return t;
+    }
+
+    /** Takes {@code p} out of its team ahead of an edit; returns the team, or null if not placed. */
+    public Team detach(Participant p) {
+        Team t = enforcer.ownerOf(p);
+        if (t == null) return null;
+        t.removeMember(p);
+        enforcer.untrack(p);
+        open.add(t);
+        detached.put(p, t);
+        onTeamChange.accept(t);
+        return t;
+    }
+
+    /**
+     * Puts an edited participant back, into its former team if the hard rules still allow it,
+     * otherwise wherever a late joiner would go. Returns the team it ends up in.
+     */
+    public Team reattach(Participant p) {
+        Team former = detached.remove(p);
+        if (former == null) return addLateJoiner(p);
+        if (former.size() < teamSize && canAdd(former, p)) {
+            place(p, former);
+            enforcer.repair(former);
+            return former;
+        }
+        Team t = addLateJoiner(p);
+        settle(former);
+        return t;
+    }
+
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    private Team bestOpenTeam(Participant p) {
+        Team best = null;
+        int bestRank = Integer.MAX_VALUE;
+        for (Team t : open) {
+            if (t.size() >= teamSize || !canAdd(t, p)) continue;
+            // lower is better: a needed role, then the personality mix, then the emptier team
+            int rank = 0;
+            if (t.distinctRoles() >= RoleDiversityEnforcer.TARGET_ROLES || t.roleCount(p.getRoleCode()) > 0) rank += 2 * teamSize + 2;
+            if (!TeamBuilder.withinPersonalityMix(t, p)) rank += teamSize + 1;
+            rank += t.size();
+            if (rank < bestRank || (rank == bestRank && t.averageSkill() < best.averageSkill())) {
+                best = t;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+
+    private void place(Participant p, Team t) {
+        t.addMember(p);
+        enforcer.track(p, t);
+        if (t.size() >= teamSize) open.remove(t);
+        onTeamChange.accept(t);
+    }
+
+    /** Drops an emptied team, otherwise repairs its role mix. */
+    private void settle(Team t) {
+        if (t.size() == 0) {
+            open.remove(t);
+            teams.remove(t);
+        } else {
+            enforcer.repair(t);
+        }
+    }
+
+    private boolean canAdd(Team t, Participant p) {
+        return constraints.allowsAdd(t, p);
+    }
+}
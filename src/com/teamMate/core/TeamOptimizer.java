@@ -0,0 +1,199 @@
+package com.teamMate.core;
+
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+
+import java.util.*;
+
+/**
+ * Improves a formed team list under a wall-clock budget using simulated annealing
+ * over swap (two members trade teams) and move (member joins a team with room) steps.
+ * Objective (lower is better):
+ * - game cap overflow, per member above the cap
+ * - missing roles below 3 distinct (or the team size, if smaller)
+ * - personality mix: distance from 1 Leader and 1-2 Thinkers
+ * - variance of averageSkill across teams
+ * The team terms come from a ConstraintSet (ConstraintSet.standard by default, which is
+ * what the weights below apply to). Every step is scored by O(1) deltas on the two touched
+ * teams before anything is changed, so rejected steps never touch the teams.
+ */
+public class TeamOptimizer {
+
+    public static final double CAP_WEIGHT = 1000.0;
+    public static final double ROLE_WEIGHT = 50.0;
+    public static final double PERSONALITY_WEIGHT = 20.0;
+    public static final double SKILL_VARIANCE_WEIGHT = 10.0;
+
+    private static final double START_TEMPERATURE = ROLE_WEIGHT;
+    private static final double END_TEMPERATURE = 0.01;
+
+    private final List<Team> teams;
+    private final int teamSize;
+    private final ConstraintSet constraints;
+    private final Random rnd;
+
+    // sum of team penalties (without the variance term)
+    private double penaltySum;
+    private double avgSum;
+    private double avgSqSum;
+
+    private long movesTried;
+    private long movesAccepted;
+
+    public TeamOptimizer(List<Team> teams, int teamSize, int maxSameGamePerTeam, long seed) {
+        this(teams, teamSize, ConstraintSet.standard(maxSameGamePerTeam), seed);
+    }
+
+    public TeamOptimizer(List<Team> teams, int teamSize, ConstraintSet constraints, long seed) {
+        this.teams = teams;
+        this.teamSize = Math.max(2, teamSize);
+        this.constraints = constraints;
+        this.rnd = new Random(seed);
+    }
+
+    /** Scores a team list from scratch with the optimizer's standard objective. */
+    public static double evaluate(List<Team> teams, int maxSameGamePerTeam) {
+        return evaluate(teams, ConstraintSet.standard(maxSameGamePerTeam));
+    }
+
+    /** Scores a team list from scratch: team penalties under {@code constraints} plus skill variance. */
+    public static double evaluate(List<Team> teams, ConstraintSet constraints) {
+        double total = 0, sum = 0, sumSq = 0;
+        for (Team t : teams) {
+            total += constraints.penalty(t);
+            double avg = t.averageSkill();
+            sum += avg;
+            sumSq += avg * avg;
+        }
+        return total + SKILL_VARIANCE_WEIGHT * variance(sum, sumSq, teams.size());
+    }
+
+    /**
+     * Runs the search for up to {@code budgetMillis} and returns the final score.
+     * The teams are modified in place; if the search ends worse than it started the
+     * original assignment is restored.
+     */
+    public double optimize(long budgetMillis) {
+        int n = teams.size();
+        if (n < 2 || budgetMillis <= 0) return evaluate(teams, constraints);
+
+        penaltySum = avgSum = avgSqSum = 0;
+        for (Team t : teams) {
+            penaltySum += constraints.penalty(t);
+            double avg = t.averageSkill();
+            avgSum += avg;
+            avgSqSum += avg * avg;
+        }
+        double startScore = score();
+        List<List<Participant>> start = new ArrayList<>(n);
+        for (Team t : teams) start.add(new ArrayList<>(t.getMembers()));
+
+        long begin = System.nanoTime();
+        long budgetNanos = budgetMillis * 1_000_000L;
+        double temperature = START_TEMPERATURE;
+        while (true) {
+            if ((movesTried & 1023) == 0) {
+                long elapsed = System.nanoTime() - begin;
+                if (elapsed >= budgetNanos) break;
+                double progress = (double) elapsed / budgetNanos;
+                temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+            }
+            movesTried++;
+            if (rnd.nextInt(4) == 0) tryMove(temperature);
+            else trySwap(temperature);
+        }
+
+        Metrics.recordNanos("optimizer.search", System.nanoTime() - begin);
+        Metrics.add("optimizer.moves_tried", movesTried);
+        Metrics.add("optimizer.moves_accepted", movesAccepted);
+        double finalScore = score();
+        if (finalScore > startScore) {
+            restore(start);
+            return startScore;
+        }
+        return finalScore;
+    }
+
+    public long getMovesTried() { return movesTried; }
+    public long getMovesAccepted() { return movesAccepted; }
+
+    private double score() {
+        return penaltySum + SKILL_VARIANCE_WEIGHT * variance(avgSum, avgSqSum, teams.size());
+    }
+
+    private void trySwap(double temperature) {
+        int a = rnd.nextInt(teams.size());
+        int b = rnd.nextInt(teams.size());
+        if (a == b) return;
+        Team ta = teams.get(a), tb = teams.get(b);
+        if (ta.size() == 0 || tb.size() == 0) return;
+        int ia = rnd.nextInt(ta.size()), ib = rnd.nextInt(tb.size());
+        Participant pa = ta.getMembers().get(ia), pb = tb.getMembers().get(ib);
+        if (pa.getGameCode() == pb.getGameCode() && pa.getRoleCode() == pb.getRoleCode()
+                && pa.getPersonalityCode() == pb.getPersonalityCode() && pa.getSkillRating() == pb.getSkillRating()) return;
+
+        double penaltyDelta = constraints.replaceCost(ta, pa, pb) + constraints.replaceCost(tb, pb, pa);
+        int skillDelta = pb.getSkillRating() - pa.getSkillRating();
+        double avgA = (double) (ta.skillSum() + skillDelta) / ta.size();
+        double avgB = (double) (tb.skillSum() - skillDelta) / tb.size();
+        if (accept(penaltyDelta, ta, avgA, tb, avgB, temperature)) {
+            ta.replaceMemberAt(ia, pb);
+            tb.replaceMemberAt(ib, pa);
+        }
+    }
+
+    private void tryMove(double temperature) {
+        int a = rnd.nextInt(teams.size());
+        int b = rnd.nextInt(teams.size());
+        if (a == b) return;
+        Team ta = teams.get(a), tb = teams.get(b);
+        if (ta.size() <= 1 || tb.size() >= teamSize) return;
+        int ia = rnd.nextInt(ta.size());
+        Participant p = ta.getMembers().get(ia);
+
+        double penaltyDelta = constraints.removeCost(ta, p) + constraints.addCost(tb, p);
+        double avgA = (double) (ta.skillSum() - p.getSkillRating()) / (ta.size() - 1);
+        double avgB = (double) (tb.skillSum() + p.getSkillRating()) / (tb.size() + 1);
+        if (accept(penaltyDelta, ta, avgA, tb, avgB, temperature)) {
+            ta.removeMemberAt(ia);
+            tb.addMember(p);
+        }
+    }
+
+    /**
+     * Decides a step that changes the team penalties by {@code penaltyDelta} and the two
+     * teams' averages to {@code avgA}/{@code avgB}; on acceptance the running sums are updated
+     * and the caller applies the step.
+     */
+    private boolean accept(double penaltyDelta, Team ta, double avgA, Team tb, double avgB, double temperature) {
+        double oldA = ta.averageSkill(), oldB = tb.averageSkill();
+        double sum = avgSum - oldA - oldB + avgA + avgB;
+        double sumSq = avgSqSum - oldA * oldA - oldB * oldB + avgA * avgA + avgB * avgB;
+        int n = teams.size();
+        double delta = penaltyDelta
+                + SKILL_VARIANCE_WEIGHT * (variance(sum, sumSq, n) - variance(avgSum, avgSqSum, n));
+        if (delta <= 0 || rnd.nextDouble() < Math.exp(-delta / temperature)) {
+            movesAccepted++;
+            penaltySum += penaltyDelta;
+            avgSum = sum;
+            avgSqSum = sumSq;
+            return true;
+        }
+        return false;
+    }
+
+    private void restore(List<List<Participant>> start) {
+        for (int i = 0; i < teams.size(); i++) {
+            Team t = teams.get(i);
+            while (t.size() > 0) t.removeMemberAt(t.size() - 1);
+            for (Participant p : start.get(i)) t.addMember(p);
+        }
+    }
+
+    static double variance(double sum, double sumSq, int n) {
+        if (n == 0) return 0.0;
+        double mean = sum / n;
+        return Math.max(0.0, sumSq / n - mean * mean);
+    }
+}
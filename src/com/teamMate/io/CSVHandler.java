@@ -1,143 +1,309 @@
 package com.teamMate.io;
 
+import com.teamMate.metrics.Metrics;
 import com.teamMate.model.Participant;
-import com.teamMate.core.PersonalityClassifier;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * CSV reading/writing.
  * Supports two CSV formats (flexible):
  * 1) Sample: ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType
  * 2) Extended: ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,Q1,Q2,Q3,Q4,Q5
+ * Fields may be quoted ("Doe, Jane"); rows are parsed by CsvLineParser.
  */
 public class CSVHandler {
 
+    // lines handed to a parser worker in one task
+    private static final int BATCH_SIZE = 4096;
+    // parsed batches allowed in flight before the reader waits for the oldest
+    private static final int MAX_BATCHES_IN_FLIGHT = 8;
+
+    // chunk sizing for the memory-mapped reader; a single mapping must stay under 2GB
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 256L << 20;
+
+    /**
+     * Reads all participants, in file order. Uses the memory-mapped chunk-parallel parser;
+     * use streamParticipants when the result does not need to be held in memory.
+     */
     public static List<Participant> readParticipants(Path csvPath) throws IOException {
+        return readParticipants(csvPath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** As readParticipants, parsing on at most {@code threads} workers (e.g. when several files load at once). */
+    public static List<Participant> readParticipants(Path csvPath, int threads) throws IOException {
+        long start = System.nanoTime();
+        List<Participant> out = readParticipantsMapped(csvPath, threads);
+        recordRead(out.size(), System.nanoTime() - start);
+        return out;
+    }
+
+    // csv.rows / csv.parse_failures are counted per chunk or batch by the parsers
+    private static void recordRead(long delivered, long nanos) {
+        Metrics.recordNanos("csv.read", nanos);
+        Metrics.add("csv.participants", delivered);
+        if (nanos > 0) Metrics.gauge("csv.rows_per_sec", delivered * 1e9 / nanos);
+    }
+
+    /**
+     * Memory-maps the file, splits it into newline-aligned chunks and parses each chunk on
+     * its own worker into a chunk-local list. The lists are concatenated in chunk order,
+     * so the result always matches file order and workers never share a lock.
+     */
+    public static List<Participant> readParticipantsMapped(Path csvPath) throws IOException {
+        return readParticipantsMapped(csvPath, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static List<Participant> readParticipantsMapped(Path csvPath, int threads) throws IOException {
         if (!Files.exists(csvPath)) throw new FileNotFoundException("CSV not found: " + csvPath);
-        List<String> lines = Files.readAllLines(csvPath);
-        List<Participant> result = Collections.synchronizedList(new ArrayList<>());
+        try (FileChannel ch = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long dataStart = headerEnd(ch, size);
+            long dataLen = size - dataStart;
+            if (dataLen <= 0) return new ArrayList<>();
 
-        int start = 0;
-        if (!lines.isEmpty() && lines.get(0).toLowerCase().contains("id")) start = 1;
+            int cores = Math.max(1, threads);
+            long bySize = (dataLen + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES;
+            long byCores = Math.min(cores, (dataLen + MIN_CHUNK_BYTES - 1) / MIN_CHUNK_BYTES);
+            int chunks = (int) Math.max(1, Math.max(bySize, byCores));
 
-        ExecutorService exec = Executors.newFixedThreadPool(Math.min(4, Math.max(1, lines.size())));
-        List<Future<?>> futures = new ArrayList<>();
+            long[] bounds = new long[chunks + 1];
+            bounds[0] = dataStart;
+            bounds[chunks] = size;
+            for (int i = 1; i < chunks; i++) {
+                long nominal = dataStart + dataLen * i / chunks;
+                bounds[i] = Math.max(bounds[i - 1], nextLineStart(ch, nominal, size));
+            }
 
-        for (int i = start; i < lines.size(); i++) {
-            final String line = lines.get(i);
-            futures.add(exec.submit(() -> {
-                try {
-                    Participant p = parseLine(line);
-                    if (p != null) result.add(p);
-                } catch (Exception ex) {
-                    System.err.println("Failed to parse CSV line: " + ex.getMessage() + " -> " + line);
+            if (chunks == 1) return parseChunk(ch, bounds[0], bounds[1]);
+
+            ExecutorService exec = Executors.newFixedThreadPool(Math.min(cores, chunks));
+            try {
+                List<Future<List<Participant>>> parts = new ArrayList<>(chunks);
+                for (int i = 0; i < chunks; i++) {
+                    final long from = bounds[i], to = bounds[i + 1];
+                    parts.add(exec.submit(() -> parseChunk(ch, from, to)));
+                }
+                List<List<Participant>> parsed = new ArrayList<>(chunks);
+                int total = 0;
+                for (Future<List<Participant>> f : parts) {
+                    List<Participant> chunk = awaitChunk(f);
+                    parsed.add(chunk);
+                    total += chunk.size();
                 }
-            }));
+                List<Participant> result = new ArrayList<>(total);
+                for (List<Participant> chunk : parsed) result.addAll(chunk);
+                return result;
+            } finally {
+                exec.shutdownNow();
+            }
         }
+    }
 
-        // wait
-        for (Future<?> f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
+    private static List<Participant> awaitChunk(Future<List<Participant>> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV read interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException("CSV parse worker failed", e.getCause());
         }
-        exec.shutdown();
-        return result;
-    }
-
-    private static Participant parseLine(String line) {
-        String[] parts = line.split(",", -1);
-        // Accept both 8-col and 11-col variants
-        if (parts.length < 8) throw new IllegalArgumentException("Expect at least 8 columns, got " + parts.length);
-
-        String id = parts[0].trim();
-        String name = parts[1].trim();
-        String email = parts.length > 2 ? parts[2].trim() : "";
-        String game = parts.length > 3 ? normalizeGame(parts[3].trim()) : "Other";
-        int skill = parts.length > 4 ? safeParse(parts[4].trim(), 5, 1, 10) : 5;
-        String role = parts.length > 5 ? normalizeRole(parts[5].trim()) : "Other";
-
-        int personalityScore = 0;
-        String personalityType = "";
-
-        if (parts.length >= 8) {
-            // column 6 may be PersonalityScore or Q1 depending on format
-            if (parts.length == 8) {
-                // format: ... ,PersonalityScore,PersonalityType
-                personalityScore = safeParse(parts[6].trim(), 50, 0, 100);
-                personalityType = parts[7].trim().isEmpty() ? PersonalityClassifier.classify(personalityScore) : parts[7].trim();
-            } else if (parts.length >= 11) {
-                // format includes Q1..Q5 at positions 6..10
-                int q1 = safeParse(parts[6].trim(), 3, 1, 5);
-                int q2 = safeParse(parts[7].trim(), 3, 1, 5);
-                int q3 = safeParse(parts[8].trim(), 3, 1, 5);
-                int q4 = safeParse(parts[9].trim(), 3, 1, 5);
-                int q5 = safeParse(parts[10].trim(), 3, 1, 5);
-                personalityScore = PersonalityClassifier.scaledScore(q1, q2, q3, q4, q5);
-                personalityType = PersonalityClassifier.classify(personalityScore);
+    }
+
+    // Returns the offset just past the header row, or 0 if the first row is data.
+    private static long headerEnd(FileChannel ch, long size) throws IOException {
+        long end = nextLineStart(ch, 0, size);
+        int len = (int) Math.min(end, 4096);
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        while (buf.hasRemaining() && ch.read(buf, buf.position()) > 0) { }
+        String first = new String(buf.array(), 0, buf.position(), StandardCharsets.UTF_8);
+        return first.toLowerCase().contains("id") ? end : 0;
+    }
+
+    // Offset of the first byte after the next '\n' at or after pos (or size at EOF).
+    private static long nextLineStart(FileChannel ch, long pos, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        while (pos < size) {
+            buf.clear();
+            int n = ch.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') return pos + i + 1;
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    private static List<Participant> parseChunk(FileChannel ch, long from, long to) throws IOException {
+        List<Participant> out = new ArrayList<>();
+        if (to <= from) return out;
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        byte[] scratch = new byte[256];
+        CsvLineParser parser = new CsvLineParser();
+        int len = 0;
+        int rows = 0, failures = 0;
+        int limit = buf.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = buf.get(i);
+            if (b == '\n') {
+                rows++;
+                if (!parseInto(out, parser, scratch, len)) failures++;
+                len = 0;
             } else {
-                // fallback
-                personalityScore = safeParse(parts[6].trim(), 50, 0, 100);
-                personalityType = PersonalityClassifier.classify(personalityScore);
+                if (len == scratch.length) scratch = Arrays.copyOf(scratch, len * 2);
+                scratch[len++] = b;
             }
         }
+        // last line without a trailing newline
+        if (len > 0) {
+            rows++;
+            if (!parseInto(out, parser, scratch, len)) failures++;
+        }
+        Metrics.add("csv.rows", rows);
+        Metrics.add("csv.parse_failures", failures);
+        return out;
+    }
+
+    // Returns false if the line failed to parse.
+    private static boolean parseInto(List<Participant> out, CsvLineParser parser, byte[] bytes, int len) {
+        if (len > 0 && bytes[len - 1] == '\r') len--;
+        try {
+            Participant p = parser.parse(bytes, len);
+            if (p != null) out.add(p);
+            return true;
+        } catch (Exception ex) {
+            // the line is only turned into a String when it has to be reported
+            String line = new String(bytes, 0, len, StandardCharsets.UTF_8);
+            System.err.println("Failed to parse CSV line: " + ex.getMessage() + " -> " + line);
+            return false;
+        }
+    }
+
+    /**
+     * Streams participants to the sink without holding the whole file in memory.
+     * Lines are read in batches of BATCH_SIZE and parsed on a small worker pool; at most
+     * MAX_BATCHES_IN_FLIGHT batches are pending at once, so the reader blocks (backpressure)
+     * instead of queueing the file. The sink is called on the caller's thread, in file order.
+     * Returns the number of participants delivered.
+     */
+    public static long streamParticipants(Path csvPath, Consumer<Participant> sink) throws IOException {
+        if (!Files.exists(csvPath)) throw new FileNotFoundException("CSV not found: " + csvPath);
+        long start = System.nanoTime();
+        int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ExecutorService exec = Executors.newFixedThreadPool(workers);
+        Deque<Future<List<Participant>>> inFlight = new ArrayDeque<>();
+        long delivered = 0;
+
+        try (BufferedReader br = Files.newBufferedReader(csvPath)) {
+            String line = br.readLine();
+            // skip header row
+            if (line != null && line.toLowerCase().contains("id")) line = br.readLine();
+
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            while (line != null) {
+                batch.add(line);
+                if (batch.size() == BATCH_SIZE) {
+                    if (inFlight.size() >= MAX_BATCHES_IN_FLIGHT) delivered += drainOldest(inFlight, sink);
+                    inFlight.add(exec.submit(parseBatchTask(batch)));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+                line = br.readLine();
+            }
+            if (!batch.isEmpty()) inFlight.add(exec.submit(parseBatchTask(batch)));
+
+            while (!inFlight.isEmpty()) delivered += drainOldest(inFlight, sink);
+        } finally {
+            exec.shutdownNow();
+        }
+        recordRead(delivered, System.nanoTime() - start);
+        return delivered;
+    }
 
-        return new Participant(id, name, email, game, role, skill, personalityScore, personalityType);
+    private static Callable<List<Participant>> parseBatchTask(List<String> batch) {
+        return () -> {
+            List<Participant> parsed = new ArrayList<>(batch.size());
+            CsvLineParser parser = new CsvLineParser();
+            int failures = 0;
+            for (String line : batch) {
+                try {
+                    Participant p = parser.parse(line);
+                    if (p != null) parsed.add(p);
+                } catch (Exception ex) {
+                    failures++;
+                    System.err.println("Failed to parse CSV line: " + ex.getMessage() + " -> " + line);
+                }
+            }
+            Metrics.add("csv.rows", batch.size());
+            Metrics.add("csv.parse_failures", failures);
+            return parsed;
+        };
     }
 
-    private static int safeParse(String s, int defaultVal, int min, int max) {
+    private static int drainOldest(Deque<Future<List<Participant>>> inFlight, Consumer<Participant> sink) throws IOException {
+        List<Participant> parsed;
         try {
-            int v = Integer.parseInt(s);
-            if (v < min) return min;
-            if (v > max) return max;
-            return v;
-        } catch (Exception e) { return defaultVal; }
-    }
-
-    private static String normalizeGame(String s) {
-        if (s == null || s.isEmpty()) return "Other";
-        String v = s.toLowerCase();
-        if (v.contains("valor")) return "Valorant";
-        if (v.contains("dota")) return "DOTA 2";
-        if (v.contains("fifa")) return "FIFA";
-        if (v.contains("basket")) return "Basketball";
-        if (v.contains("badm")) return "Badminton";
-        if (v.contains("chess")) return "Chess";
-        if (v.contains("cs")) return "CS:GO";
-        return s;
-    }
-
-    private static String normalizeRole(String s) {
-        if (s == null || s.isEmpty()) return "Other";
-        String v = s.toLowerCase();
-        if (v.contains("strate")) return "Strategist";
-        if (v.contains("attack")) return "Attacker";
-        if (v.contains("defend")) return "Defender";
-        if (v.contains("support")) return "Supporter";
-        if (v.contains("coord")) return "Coordinator";
-        return s;
+            parsed = inFlight.poll().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV read interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("CSV parse worker failed", e.getCause());
+        }
+        for (Participant p : parsed) sink.accept(p);
+        return parsed.size();
+    }
+
+    /** Canonical spelling of a game name as a CSV import would read it (e.g. "cs2" is CS:GO). */
+    public static String canonicalGame(String value) {
+        return CsvLineParser.canonicalGame(value);
     }
 
+    private static final int EXPORT_BUFFER_BYTES = 1 << 20;
+
+    /** Writes the teams as CSV; gzip-compressed when the file name ends in ".gz". */
     public static void writeTeams(Path outPath, List<com.teamMate.core.Team> teams) throws IOException {
-        try (BufferedWriter bw = Files.newBufferedWriter(outPath)) {
-            bw.write("teamId,memberId,memberName,email,game,role,skill,personality,personalityScore\n");
+        writeTeams(outPath, teams, outPath.toString().toLowerCase().endsWith(".gz"));
+    }
+
+    /**
+     * Encodes rows directly into a reusable 1MB buffer and writes it through a FileChannel
+     * (or a gzip stream over it). Fields containing commas, quotes or line breaks are quoted.
+     */
+    public static void writeTeams(Path outPath, List<com.teamMate.core.Team> teams, boolean gzip) throws IOException {
+        try (FileChannel ch = FileChannel.open(outPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream gz = gzip ? new GZIPOutputStream(Channels.newOutputStream(ch), 1 << 16) : null) {
+            CsvRowEncoder enc = new CsvRowEncoder(ch, gz, EXPORT_BUFFER_BYTES);
+            enc.raw("teamId,memberId,memberName,email,game,role,skill,personality,personalityScore\n");
             for (com.teamMate.core.Team t : teams) {
                 for (Participant p : t.getMembers()) {
-                    bw.write(String.format("%d,%s,%s,%s,%s,%s,%d,%s,%d\n",
-                            t.getTeamId(),
-                            p.getId(),
-                            p.getName().replace(",", " "),
-                            p.getEmail(),
-                            p.getGame(),
-                            p.getRole(),
-                            p.getSkillRating(),
-                            p.getPersonalityType(),
-                            p.getPersonalityScore()
-                    ));
+                    enc.field(t.getTeamId())
+                            .field(p.getId())
+                            .field(p.getName())
+                            .field(p.getEmail())
+                            .field(p.getGame())
+                            .field(p.getRole())
+                            .field(p.getSkillRating())
+                            .field(p.getPersonalityType())
+                            .field(p.getPersonalityScore())
+                            .endRow();
                 }
             }
+            enc.flush();
         }
     }
 }
@@ -0,0 +1,303 @@
+package com.teamMate.io;
+
+import com.teamMate.core.PersonalityClassifier;
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parses CSV rows into Participants from one reusable char buffer. Fields are located
+ * in place (quoted fields are unescaped inside the buffer), numbers are parsed without
+ * exceptions and game/role/personality values map to the shared constants, so a row costs
+ * the id, name and email Strings plus the Participant itself.
+ *
+ * Not thread-safe: each parser worker uses its own instance.
+ */
+class CsvLineParser {
+
+    private char[] buf = new char[256];
+    // field f is buf[start[f] .. end[f]), already trimmed and unquoted
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private int fields;
+    private CharsetDecoder utf8;
+
+    /** Parses one UTF-8 line (no line terminator). */
+    Participant parse(byte[] bytes, int len) {
+        ensure(len);
+        int i = 0;
+        // plain ASCII is by far the common case; anything else goes through the decoder
+        while (i < len && bytes[i] >= 0) {
+            buf[i] = (char) bytes[i];
+            i++;
+        }
+        return i == len ? parseBuffer(len) : parseBuffer(decode(bytes, len));
+    }
+
+    Participant parse(String line) {
+        int len = line.length();
+        ensure(len);
+        line.getChars(0, len, buf, 0);
+        return parseBuffer(len);
+    }
+
+    private Participant parseBuffer(int len) {
+        split(len);
+        // Accept both 8-col and 11-col variants
+        if (fields < 8) throw new IllegalArgumentException("Expect at least 8 columns, got " + fields);
+
+        String id = text(0);
+        String name = text(1);
+        String email = text(2);
+        String game = lookup(3, GAMES, GAME_CONTAINS, GameType.OTHER);
+        int skill = number(4, 5, 1, 10);
+        String role = lookup(5, ROLES, ROLE_CONTAINS, RoleType.OTHER);
+
+        int personalityScore;
+        String personalityType;
+        if (fields == 8) {
+            // format: ... ,PersonalityScore,PersonalityType
+            personalityScore = number(6, 50, 0, 100);
+            personalityType = isEmpty(7) ? PersonalityClassifier.classify(personalityScore) : personality(7);
+        } else if (fields >= 11) {
+            // format includes Q1..Q5 at positions 6..10
+            personalityScore = PersonalityClassifier.scaledScore(number(6, 3, 1, 5), number(7, 3, 1, 5),
+                    number(8, 3, 1, 5), number(9, 3, 1, 5), number(10, 3, 1, 5));
+            personalityType = PersonalityClassifier.classify(personalityScore);
+        } else {
+            // fallback
+            personalityScore = number(6, 50, 0, 100);
+            personalityType = PersonalityClassifier.classify(personalityScore);
+        }
+        return new Participant(id, name, email, game, role, skill, personalityScore, personalityType);
+    }
+
+    /**
+     * Finds the fields of buf[0..len). A field whose first non-blank char is '"' is quoted:
+     * commas inside it are data and "" is a literal quote. Unquoted fields are trimmed like String.trim.
+     */
+    private void split(int len) {
+        fields = 0;
+        int i = 0;
+        while (true) {
+            int s = i;
+            while (s < len && buf[s] <= ' ') s++;
+            int e;
+            if (s < len && buf[s] == '"') {
+                // unescape into the buffer itself; the content only ever shrinks
+                int w = s;
+                int r = s + 1;
+                while (r < len) {
+                    char c = buf[r++];
+                    if (c == '"') {
+                        if (r < len && buf[r] == '"') r++;
+                        else break;
+                    }
+                    buf[w++] = c;
+                }
+                e = w;
+                // stray text after the closing quote is kept, trailing blanks are not
+                while (r < len && buf[r] != ',') {
+                    char c = buf[r++];
+                    buf[w++] = c;
+                    if (c > ' ') e = w;
+                }
+                i = r;
+            } else {
+                int r = s;
+                while (r < len && buf[r] != ',') r++;
+                e = r;
+                while (e > s && buf[e - 1] <= ' ') e--;
+                i = r;
+            }
+            if (fields == start.length) {
+                start = Arrays.copyOf(start, fields * 2);
+                end = Arrays.copyOf(end, fields * 2);
+            }
+            start[fields] = s;
+            end[fields] = e;
+            fields++;
+            if (i >= len) return;
+            i++; // the comma
+        }
+    }
+
+    private String text(int f) {
+        int n = end[f] - start[f];
+        return n == 0 ? "" : new String(buf, start[f], n);
+    }
+
+    private boolean isEmpty(int f) {
+        return end[f] == start[f];
+    }
+
+    /** Like Integer.parseInt clamped to [min, max], but returns {@code def} instead of throwing. */
+    private int number(int f, int def, int min, int max) {
+        int i = start[f], e = end[f];
+        if (i == e) return def;
+        boolean negative = buf[i] == '-';
+        if (negative || buf[i] == '+') i++;
+        if (i == e) return def;
+        long v = 0;
+        for (; i < e; i++) {
+            int d = Character.digit(buf[i], 10);
+            if (d < 0) return def;
+            v = v * 10 + d;
+            if (v > Integer.MAX_VALUE + 1L) return def; // parseInt would overflow
+        }
+        if (negative) v = -v;
+        if (v > Integer.MAX_VALUE) return def;
+        if (v < min) return min;
+        if (v > max) return max;
+        return (int) v;
+    }
+
+    private String personality(int f) {
+        for (String t : PERSONALITIES) {
+            if (equalsExact(f, t)) return t;
+        }
+        return text(f);
+    }
+
+    /**
+     * Canonical value for a game or role field: an exact alias hit in the table, otherwise
+     * the first case-insensitive substring rule that matches, otherwise the raw text.
+     * Empty fields are {@code other} (GameType.OTHER or RoleType.OTHER).
+     */
+    private String lookup(int f, AliasTable aliases, String[][] containsRules, String other) {
+        if (isEmpty(f)) return other;
+        String hit = aliases.get(buf, start[f], end[f]);
+        if (hit != null) return hit;
+        for (String[] rule : containsRules) {
+            if (containsIgnoreCase(f, rule[0])) return rule[1];
+        }
+        return equalsExact(f, other) ? other : text(f);
+    }
+
+    /** The game a CSV field holding {@code value} is read as (same rules as lookup); unmatched text comes back trimmed. */
+    static String canonicalGame(String value) {
+        String v = value == null ? "" : value.trim();
+        if (v.isEmpty()) return GameType.OTHER;
+        char[] cs = v.toCharArray();
+        String hit = GAMES.get(cs, 0, cs.length);
+        if (hit != null) return hit;
+        String lower = v.toLowerCase();
+        for (String[] rule : GAME_CONTAINS) {
+            if (lower.contains(rule[0])) return rule[1];
+        }
+        return v;
+    }
+
+    private boolean containsIgnoreCase(int f, String lower) {
+        int n = lower.length();
+        for (int s = start[f], last = end[f] - n; s <= last; s++) {
+            int k = 0;
+            while (k < n && Character.toLowerCase(buf[s + k]) == lower.charAt(k)) k++;
+            if (k == n) return true;
+        }
+        return false;
+    }
+
+    private boolean equalsExact(int f, String s) {
+        int n = s.length();
+        if (end[f] - start[f] != n) return false;
+        for (int k = 0; k < n; k++) {
+            if (buf[start[f] + k] != s.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private int decode(byte[] bytes, int len) {
+        if (utf8 == null) {
+            // same replacement behaviour as new String(bytes, UTF_8)
+            utf8 = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        CharBuffer out = CharBuffer.wrap(buf);
+        utf8.reset();
+        utf8.decode(ByteBuffer.wrap(bytes, 0, len), out, true);
+        utf8.flush(out);
+        return out.position();
+    }
+
+    private void ensure(int len) {
+        // UTF-8 never decodes to more chars than bytes
+        if (buf.length < len) buf = new char[Math.max(len, buf.length * 2)];
+    }
+
+    // substring rules in priority order (the order matters: "cs" would match too much if it came first)
+    private static final String[][] GAME_CONTAINS = {
+            {"valor", GameType.VALORANT}, {"dota", GameType.DOTA}, {"fifa", GameType.FIFA},
+            {"basket", GameType.BASKETBALL}, {"badm", GameType.BADMINTON}, {"chess", GameType.CHESS},
+            {"cs", GameType.CS_GO}};
+    private static final String[][] ROLE_CONTAINS = {
+            {"strate", RoleType.STRATEGIST}, {"attack", RoleType.ATTACKER}, {"defend", RoleType.DEFENDER},
+            {"support", RoleType.SUPPORTER}, {"coord", RoleType.COORDINATOR}};
+
+    // exact spellings seen in practice; each must give the same answer as the substring rules
+    private static final AliasTable GAMES = new AliasTable(
+            "valorant", GameType.VALORANT, "dota 2", GameType.DOTA, "dota2", GameType.DOTA, "dota", GameType.DOTA,
+            "fifa", GameType.FIFA, "basketball", GameType.BASKETBALL, "badminton", GameType.BADMINTON,
+            "chess", GameType.CHESS, "cs:go", GameType.CS_GO, "csgo", GameType.CS_GO, "cs", GameType.CS_GO,
+            "cs2", GameType.CS_GO);
+    private static final AliasTable ROLES = new AliasTable(
+            "strategist", RoleType.STRATEGIST, "attacker", RoleType.ATTACKER, "defender", RoleType.DEFENDER,
+            "supporter", RoleType.SUPPORTER, "support", RoleType.SUPPORTER, "coordinator", RoleType.COORDINATOR);
+
+    private static final String[] PERSONALITIES = {
+            PersonalityType.LEADER, PersonalityType.BALANCED, PersonalityType.THINKER, PersonalityType.UNKNOWN};
+
+    /**
+     * Open-addressing table from lower-case alias to canonical value, probed straight from
+     * a char range (case-insensitive), so lookups create nothing.
+     */
+    private static class AliasTable {
+        private final String[] keys;
+        private final String[] values;
+        private final int mask;
+
+        AliasTable(String... pairs) {
+            int size = Integer.highestOneBit(pairs.length * 2 - 1) * 2; // load factor <= 1/2
+            keys = new String[size];
+            values = new String[size];
+            mask = size - 1;
+            for (int p = 0; p < pairs.length; p += 2) {
+                String k = pairs[p];
+                int slot = hash(k.toCharArray(), 0, k.length()) & mask;
+                while (keys[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = k;
+                values[slot] = pairs[p + 1];
+            }
+        }
+
+        String get(char[] cs, int from, int to) {
+            for (int slot = hash(cs, from, to) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (matches(keys[slot], cs, from, to)) return values[slot];
+            }
+            return null;
+        }
+
+        private static boolean matches(String key, char[] cs, int from, int to) {
+            if (key.length() != to - from) return false;
+            for (int k = 0; k < key.length(); k++) {
+                if (Character.toLowerCase(cs[from + k]) != key.charAt(k)) return false;
+            }
+            return true;
+        }
+
+        private static int hash(char[] cs, int from, int to) {
+            int h = 0;
+            for (int i = from; i < to; i++) h = 31 * h + Character.toLowerCase(cs[i]);
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.teamMate.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes CSV rows straight into one reusable byte buffer (UTF-8, RFC 4180 quoting)
+ * and drains it to a channel or stream when full. No per-row objects are created.
+ */
+class CsvRowEncoder {
+
+    private final WritableByteChannel channel;
+    private final OutputStream stream;
+    private byte[] buf;
+    private int pos;
+    private boolean rowStarted;
+
+    /** Writes to {@code stream} when non-null, otherwise to {@code channel}. */
+    CsvRowEncoder(WritableByteChannel channel, OutputStream stream, int bufferBytes) {
+        this.channel = channel;
+        this.stream = stream;
+        this.buf = new byte[Math.max(1024, bufferBytes)];
+    }
+
+    CsvRowEncoder field(String s) throws IOException {
+        separator();
+        if (s == null) return this;
+        int n = s.length();
+        boolean quote = false;
+        for (int i = 0; i < n && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        // worst case: 3 bytes per char, doubled quotes, surrounding quotes
+        ensure(n * 6 + 2);
+        if (quote) buf[pos++] = '"';
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' && quote) buf[pos++] = '"';
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?'; // unpaired surrogate, same as String.getBytes
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        if (quote) buf[pos++] = '"';
+        return this;
+    }
+
+    CsvRowEncoder field(long v) throws IOException {
+        separator();
+        ensure(20);
+        if (v < 0) {
+            if (v == Long.MIN_VALUE) return raw(Long.toString(v));
+            buf[pos++] = '-';
+            v = -v;
+        }
+        if (v == 0) {
+            buf[pos++] = '0';
+            return this;
+        }
+        int start = pos;
+        while (v > 0) {
+            buf[pos++] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+        return this;
+    }
+
+    /** Writes pre-formatted ASCII (e.g. a header row) without quoting. */
+    CsvRowEncoder raw(String ascii) throws IOException {
+        ensure(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) buf[pos++] = (byte) ascii.charAt(i);
+        return this;
+    }
+
+    void endRow() throws IOException {
+        ensure(1);
+        buf[pos++] = '\n';
+        rowStarted = false;
+    }
+
+    void flush() throws IOException {
+        if (pos == 0) return;
+        if (stream != null) {
+            stream.write(buf, 0, pos);
+        } else {
+            ByteBuffer bb = ByteBuffer.wrap(buf, 0, pos);
+            while (bb.hasRemaining()) channel.write(bb);
+        }
+        pos = 0;
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            ensure(1);
+            buf[pos++] = ',';
+        }
+        rowStarted = true;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (pos + bytes <= buf.length) return;
+        flush();
+        if (bytes > buf.length) buf = new byte[bytes];
+    }
+}
@@ -0,0 +1,567 @@
+package com.teamMate.io;
+
+import com.teamMate.core.ParticipantRegistry;
+import com.teamMate.core.ParticipantTable;
+import com.teamMate.core.RegistryListener;
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.Participant;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of participant changes with group commit, so registrations and edits
+ * survive an exit or crash.
+ *
+ * The journal is a RegistryListener: every add, removal and edit becomes one record
+ * [int length][int crc32c][payload] appended to an in-memory batch. Listener callbacks never
+ * touch the disk; a single flusher thread writes whatever has accumulated and forces it with
+ * one fsync, so many concurrent submissions share each flush. Callers that must not report
+ * success before the data is on disk call {@link #sync()} (or {@link #awaitDurable}) after the
+ * registry call, outside the registry lock.
+ *
+ * Records carry the full participant state (PUT) or just the id (REMOVE), so replaying a
+ * record twice is harmless. Once the live segment holds many more records than the pool has
+ * participants it is compacted: the registry is captured and a new segment started at the
+ * same instant, the capture is written as a snapshot (SnapshotHandler format) and older files
+ * are deleted. Recovery loads the newest snapshot, replays the segments written after it and
+ * cuts off a torn tail.
+ *
+ * Files in the directory: snapshot-N.snap and journal-N.log, where journal-N.log holds the
+ * changes made after snapshot-N was captured.
+ */
+public class ParticipantJournal implements RegistryListener, Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER_BYTES = 8;
+    // anything longer is treated as a torn or corrupt length field
+    private static final int MAX_RECORD_BYTES = 1 << 24;
+    // compact once the live segment has this many records and twice as many as live participants
+    static final long MIN_COMPACT_RECORDS = 100_000;
+
+    private final Path dir;
+    private final ParticipantRegistry registry;
+    private final Object lock = new Object();
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+    private final ExecutorService compactor;
+
+    // guarded by lock
+    private byte[] pending = new byte[1 << 16];
+    private int pendingLen;
+    private byte[] spare = new byte[1 << 16];
+    private long appended;      // records handed to the journal so far
+    private volatile long durable; // records known to be on disk; also read by awaitDurable
+    private volatile IOException failure;
+    private boolean closing;
+    private FileChannel channel;
+    private long generation;
+    private long segmentRecords;
+    private long live;
+    private boolean compacting;
+
+    // awaitDurable waits here rather than on lock: only the flusher is woken per append, and a
+    // virtual thread blocked in Object.wait would pin its carrier thread
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+
+    // id before the edit, from updating() to updated(); edits of different participants can interleave
+    private final Map<Participant, String> updatingIds = new IdentityHashMap<>();
+
+    private ParticipantJournal(Path dir, ParticipantRegistry registry, long generation, long live) throws IOException {
+        this.dir = dir;
+        this.registry = registry;
+        this.generation = generation;
+        this.live = live;
+        this.channel = openSegment(dir, generation);
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Recovers the journal in {@code dir} (created if missing) into the registry, then starts
+     * journaling the registry's changes. Call it before anything else is added to the registry;
+     * listeners registered earlier see the recovered participants as one bulk add (addedAll).
+     */
+    public static ParticipantJournal open(Path dir, ParticipantRegistry registry) throws IOException {
+        Files.createDirectories(dir);
+        long start = System.nanoTime();
+        long snapshotGen = -1, lastGen = -1;
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                if (name.endsWith(".tmp")) Files.deleteIfExists(f); // unfinished snapshot
+                long g = generationOf(name, "snapshot-", ".snap");
+                if (g > snapshotGen) snapshotGen = g;
+                g = generationOf(name, "journal-", ".log");
+                if (g >= 0) segments.add(g);
+            }
+        }
+        Collections.sort(segments);
+
+        // a record is ~100 bytes, so this fits every replayed participant at the default load factor
+        long segmentBytes = 0;
+        for (long g : segments) {
+            if (g >= snapshotGen) segmentBytes += Files.size(segmentFile(dir, g));
+        }
+        Map<String, Participant> state = new LinkedHashMap<>((int) Math.min(1 << 26, segmentBytes / 75 + 16));
+        Map<String, String> canon = new HashMap<>();
+        if (snapshotGen >= 0) {
+            for (Participant p : SnapshotHandler.readSnapshot(snapshotFile(dir, snapshotGen)).toParticipants()) {
+                state.put(key(p.getId()), p);
+            }
+        }
+        long replayed = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long g = segments.get(i);
+            if (g < snapshotGen) continue;
+            replayed += replay(segmentFile(dir, g), state, canon, i == segments.size() - 1);
+            lastGen = g;
+        }
+
+        int skipped = state.size() - registry.addAll(new ArrayList<>(state.values()));
+        if (skipped > 0) System.err.println("Journal recovery skipped " + skipped + " participants with a clashing email");
+        Metrics.recordNanos("journal.recovery", System.nanoTime() - start);
+        Metrics.add("journal.replayed_records", replayed);
+
+        // new writes go to a fresh segment; a torn tail is never appended to
+        long generation = Math.max(Math.max(snapshotGen, lastGen) + 1, 0);
+        ParticipantJournal journal = new ParticipantJournal(dir, registry, generation, registry.size());
+        registry.addListener(journal);
+        synchronized (journal.lock) {
+            journal.segmentRecords = replayed;
+            journal.maybeCompact();
+        }
+        return journal;
+    }
+
+    @Override
+    public void added(Participant p) {
+        synchronized (lock) {
+            live++;
+            append(PUT, p.getId(), p);
+        }
+    }
+
+    @Override
+    public void addedAll(List<Participant> ps) {
+        synchronized (lock) {
+            for (Participant p : ps) {
+                live++;
+                append(PUT, p.getId(), p);
+            }
+        }
+    }
+
+    @Override
+    public void removed(Participant p) {
+        synchronized (lock) {
+            live--;
+            append(REMOVE, p.getId(), null);
+        }
+    }
+
+    @Override
+    public void updating(Participant p) {
+        synchronized (lock) {
+            updatingIds.put(p, p.getId());
+        }
+    }
+
+    @Override
+    public void updated(Participant p) {
+        synchronized (lock) {
+            // keyed by the id it had before the edit, in case the edit changed it
+            String before = updatingIds.remove(p);
+            append(PUT, before != null ? before : p.getId(), p);
+        }
+    }
+
+    /** Sequence number of the latest record; pass it to {@link #awaitDurable}. */
+    public long lastAppended() {
+        synchronized (lock) {
+            return appended;
+        }
+    }
+
+    /** Blocks until the first {@code seq} records are on disk. */
+    public void awaitDurable(long seq) throws IOException {
+        durableLock.lock();
+        try {
+            while (durable < seq && failure == null) {
+                if (!flusher.isAlive()) throw new IOException("Journal is closed");
+                try {
+                    durableAdvanced.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for the journal");
+                }
+            }
+            if (durable < seq) throw new IOException("Journal write failed: " + failure.getMessage(), failure);
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /** Blocks until every change made so far is on disk. */
+    public void sync() throws IOException {
+        awaitDurable(lastAppended());
+    }
+
+    /** Flushes what is pending, waits for a running compaction and releases the files. */
+    @Override
+    public void close() throws IOException {
+        registry.removeListener(this);
+        synchronized (lock) {
+            closing = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+            compactor.shutdown();
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            channel.close();
+            if (failure != null) throw new IOException("Journal write failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    // ---- writing ----
+
+    // caller holds lock
+    private void append(byte type, String keyId, Participant p) {
+        if (closing || failure != null) return;
+        int start = pendingLen;
+        pendingLen += HEADER_BYTES;
+        putByte(type);
+        putString(keyId);
+        if (type == PUT) {
+            putString(p.getId());
+            putString(p.getName());
+            putString(p.getEmail());
+            putString(p.getGame());
+            putString(p.getRole());
+            putInt(p.getSkillRating());
+            putInt(p.getPersonalityScore());
+            putString(p.getPersonalityType());
+        }
+        int len = pendingLen - start - HEADER_BYTES;
+        crc.reset();
+        crc.update(pending, start + HEADER_BYTES, len);
+        writeInt(pending, start, len);
+        writeInt(pending, start + 4, (int) crc.getValue());
+        appended++;
+        segmentRecords++;
+        lock.notifyAll();
+        maybeCompact();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            byte[] batch;
+            int len;
+            long upTo, from;
+            FileChannel ch;
+            synchronized (lock) {
+                while (pendingLen == 0 && !closing) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pendingLen == 0) { // closing and drained
+                    signalDurable();
+                    return;
+                }
+                batch = pending;
+                len = pendingLen;
+                pending = spare;
+                pendingLen = 0;
+                spare = batch; // only this thread swaps, so batch is not reused before it is written
+                from = durable;
+                upTo = appended;
+                ch = channel;
+            }
+            long t0 = System.nanoTime();
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(batch, 0, len);
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(false);
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                }
+                signalDurable();
+                System.err.println("Journal write failed: " + e.getMessage());
+                return;
+            }
+            Metrics.lap("journal.fsync", t0);
+            Metrics.increment("journal.batches");
+            Metrics.add("journal.records", upTo - from);
+            synchronized (lock) {
+                durable = upTo;
+            }
+            signalDurable();
+        }
+    }
+
+    private void signalDurable() {
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    // ---- compaction ----
+
+    // caller holds lock
+    private void maybeCompact() {
+        if (compacting || closing || segmentRecords < Math.max(MIN_COMPACT_RECORDS, 2 * live)) return;
+        compacting = true;
+        compactor.submit(this::compact);
+    }
+
+    private void compact() {
+        long t0 = System.nanoTime();
+        try {
+            // no change can land between the capture and the switch to the new segment
+            Cut cut = registry.atomically(() -> {
+                synchronized (lock) {
+                    if (closing) return null;
+                    try {
+                        Cut c = new Cut(registry.getAll(), generation + 1, appended, channel);
+                        channel = openSegment(dir, c.generation);
+                        generation = c.generation;
+                        segmentRecords = 0;
+                        return c;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            if (cut == null) return;
+            long gen = cut.generation;
+            // records before the cut that were still pending go to the new segment, which is
+            // harmless on replay; once they are durable no batch is still writing to the previous one
+            awaitDurable(cut.records);
+            cut.previous.close();
+
+            Path tmp = dir.resolve("snapshot-" + gen + ".snap.tmp");
+            SnapshotHandler.writeSnapshot(tmp, ParticipantTable.of(cut.state));
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ch.force(true);
+            }
+            Files.move(tmp, snapshotFile(dir, gen), StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(dir);
+
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path f : files) {
+                    String name = f.getFileName().toString();
+                    long g = Math.max(generationOf(name, "snapshot-", ".snap"), generationOf(name, "journal-", ".log"));
+                    if (g >= 0 && g < gen) Files.deleteIfExists(f);
+                }
+            }
+            Metrics.lap("journal.compaction", t0);
+        } catch (IOException | UncheckedIOException e) {
+            // the older snapshot and segments are still there, so nothing is lost
+            System.err.println("Journal compaction failed: " + e.getMessage());
+        } finally {
+            synchronized (lock) {
+                compacting = false;
+            }
+        }
+    }
+
+    /** What compaction captured at the switch to a new segment. */
+    private static class Cut {
+        final List<Participant> state;
+        final long generation;
+        final long records;          // records appended before the switch
+        final FileChannel previous;  // the segment that was live until then
+
+        Cut(List<Participant> state, long generation, long records, FileChannel previous) {
+            this.state = state;
+            this.generation = generation;
+            this.records = records;
+            this.previous = previous;
+        }
+    }
+
+    // ---- recovery ----
+
+    /**
+     * Applies the valid records of one segment to {@code state}; returns how many were applied.
+     * Stops at the first torn or corrupt record, which on the live (last) segment is cut off.
+     */
+    private static long replay(Path file, Map<String, Participant> state, Map<String, String> canon, boolean last) throws IOException {
+        long records = 0, good = 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(ch), 1 << 16);
+            CRC32C sum = new CRC32C();
+            byte[] head = new byte[HEADER_BYTES];
+            byte[] rec = new byte[256];
+            while (readFully(in, head, HEADER_BYTES)) {
+                int len = readInt(head, 0);
+                if (len <= 0 || len > MAX_RECORD_BYTES) break;
+                if (rec.length < len) rec = new byte[Math.max(len, rec.length * 2)];
+                if (!readFully(in, rec, len)) break;
+                sum.reset();
+                sum.update(rec, 0, len);
+                if ((int) sum.getValue() != readInt(head, 4)) break;
+                apply(rec, state, canon);
+                good += HEADER_BYTES + len;
+                records++;
+            }
+            long size = ch.size();
+            if (good < size) {
+                System.err.printf("Journal %s: ignoring %d bytes after the last intact record%n", file.getFileName(), size - good);
+                if (last) {
+                    ch.truncate(good);
+                    ch.force(true);
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @param canon one shared instance per game/role/personality spelling, so recovered
+     *              participants do not each hold their own copy
+     */
+    private static void apply(byte[] rec, Map<String, Participant> state, Map<String, String> canon) {
+        int[] pos = {1};
+        String keyId = readString(rec, pos);
+        if (rec[0] == REMOVE) {
+            state.remove(key(keyId));
+            return;
+        }
+        String id = readString(rec, pos);
+        String name = readString(rec, pos);
+        String email = readString(rec, pos);
+        String game = canon.computeIfAbsent(readString(rec, pos), s -> s);
+        String role = canon.computeIfAbsent(readString(rec, pos), s -> s);
+        int skill = readInt(rec, pos[0]);
+        int score = readInt(rec, pos[0] + 4);
+        pos[0] += 8;
+        String type = canon.computeIfAbsent(readString(rec, pos), s -> s);
+        String key = key(id);
+        if (!keyId.equals(id) && !key(keyId).equals(key)) state.remove(key(keyId));
+        state.put(key, new Participant(id, name, email, game, role, skill, score, type));
+    }
+
+    // ---- helpers ----
+
+    private void putByte(byte b) {
+        ensure(1);
+        pending[pendingLen++] = b;
+    }
+
+    private void putInt(int v) {
+        ensure(4);
+        writeInt(pending, pendingLen, v);
+        pendingLen += 4;
+    }
+
+    private void putString(String s) {
+        byte[] b = s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+        putInt(b.length);
+        ensure(b.length);
+        System.arraycopy(b, 0, pending, pendingLen, b.length);
+        pendingLen += b.length;
+    }
+
+    private void ensure(int more) {
+        if (pendingLen + more > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pendingLen + more, pending.length * 2));
+        }
+    }
+
+    private static void writeInt(byte[] b, int at, int v) {
+        b[at] = (byte) (v >>> 24);
+        b[at + 1] = (byte) (v >>> 16);
+        b[at + 2] = (byte) (v >>> 8);
+        b[at + 3] = (byte) v;
+    }
+
+    private static int readInt(byte[] b, int at) {
+        return (b[at] & 0xFF) << 24 | (b[at + 1] & 0xFF) << 16 | (b[at + 2] & 0xFF) << 8 | (b[at + 3] & 0xFF);
+    }
+
+    private static String readString(byte[] rec, int[] pos) {
+        int len = readInt(rec, pos[0]);
+        String s = new String(rec, pos[0] + 4, len, StandardCharsets.UTF_8);
+        pos[0] += 4 + len;
+        return s;
+    }
+
+    private static boolean readFully(InputStream in, byte[] b, int len) throws IOException {
+        int n = 0;
+        while (n < len) {
+            int r = in.read(b, n, len - n);
+            if (r < 0) return false;
+            n += r;
+        }
+        return true;
+    }
+
+    private static String key(String id) {
+        return id == null ? "" : id.toLowerCase();
+    }
+
+    private static long generationOf(String name, String prefix, String suffix) {
+        if (!name.startsWith(prefix) || !name.endsWith(suffix)) return -1;
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Path snapshotFile(Path dir, long gen) {
+        return dir.resolve("snapshot-" + gen + ".snap");
+    }
+
+    private static Path segmentFile(Path dir, long gen) {
+        return dir.resolve("journal-" + gen + ".log");
+    }
+
+    private static FileChannel openSegment(Path dir, long gen) throws IOException {
+        FileChannel ch = FileChannel.open(segmentFile(dir, gen),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        syncDirectory(dir);
+        return ch;
+    }
+
+    // makes a new or renamed file's directory entry durable; not every platform allows it
+    private static void syncDirectory(Path dir) {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+}
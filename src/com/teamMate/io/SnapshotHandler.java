@@ -0,0 +1,207 @@
+package com.teamMate.io;
+
+import com.teamMate.core.ParticipantTable;
+import com.teamMate.model.CodeDictionary;
+import com.teamMate.model.GameType;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Versioned binary snapshot of a participant pool, loaded by memory-mapping the file.
+ * Layout (big-endian):
+ *   header (64 bytes): magic, version, rows, game/role/personality dictionary sizes,
+ *                      offsets of the dictionary, column, string-offset and string-data sections
+ *   dictionaries:      per entry int length + UTF-8 bytes (game, then role, then personality)
+ *   columns:           skill byte[rows], score byte[rows], game short[rows], role short[rows],
+ *                      personality byte[rows]
+ *   string offsets:    int[3 * rows + 1] into string data; id, name, email per row
+ *   string data:       UTF-8
+ *   folded text (v2):  int count, then per row int row + game/role/personality text, each an
+ *                      int length (-1 = not folded) + UTF-8; rows whose codes a bounded
+ *                      dictionary folded (see ParticipantTable), so their text survives
+ * Dictionary codes are remapped to the running JVM's dictionaries on load; values that fold
+ * there keep their text the same way. Version 1 files (no folded section) still load.
+ * Loading skips CSV parsing, normalization and personality scoring; ParticipantRegistry#addAll
+ * then registers the table under one lock with one bulk call per listener.
+ */
+public class SnapshotHandler {
+
+    private static final int MAGIC = 0x544D5350; // "TMSP"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+
+    public static void writeSnapshot(Path out, ParticipantTable table) throws IOException {
+        int rows = table.size();
+
+        // encode the string table first so every section offset is known up front
+        int[] offsets = new int[3 * rows + 1];
+        ByteArrayOutputStream blob = new ByteArrayOutputStream(rows * 48);
+        for (int i = 0; i < rows; i++) {
+            writeString(blob, table.getId(i), offsets, 3 * i);
+            writeString(blob, table.getName(i), offsets, 3 * i + 1);
+            writeString(blob, table.getEmail(i), offsets, 3 * i + 2);
+        }
+        offsets[3 * rows] = blob.size();
+
+        CodeDictionary[] dicts = {GameType.CODES, RoleType.CODES, PersonalityType.CODES};
+        int[] dictSizes = new int[3];
+        long dictBytes = 0;
+        for (int d = 0; d < 3; d++) {
+            dictSizes[d] = dicts[d].size();
+            for (int c = 0; c < dictSizes[d]; c++) dictBytes += 4 + utf8(dicts[d].value(c)).length;
+        }
+        long dictOffset = HEADER_BYTES;
+        long columnsOffset = dictOffset + dictBytes;
+        long stringOffsetsOffset = columnsOffset + 7L * rows;
+        long stringDataOffset = stringOffsetsOffset + 4L * offsets.length;
+
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out), 1 << 16))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(rows);
+            for (int size : dictSizes) dos.writeInt(size);
+            dos.writeLong(dictOffset);
+            dos.writeLong(columnsOffset);
+            dos.writeLong(stringOffsetsOffset);
+            dos.writeLong(stringDataOffset);
+            dos.writeLong(blob.size()); // header ends at HEADER_BYTES
+
+            for (int d = 0; d < 3; d++) {
+                for (int c = 0; c < dictSizes[d]; c++) {
+                    byte[] b = utf8(dicts[d].value(c));
+                    dos.writeInt(b.length);
+                    dos.write(b);
+                }
+            }
+            for (int i = 0; i < rows; i++) dos.writeByte(table.getSkillRating(i));
+            for (int i = 0; i < rows; i++) dos.writeByte(table.getPersonalityScore(i));
+            for (int i = 0; i < rows; i++) dos.writeShort(table.getGameCode(i));
+            for (int i = 0; i < rows; i++) dos.writeShort(table.getRoleCode(i));
+            for (int i = 0; i < rows; i++) dos.writeByte(table.getPersonalityCode(i));
+            for (int off : offsets) dos.writeInt(off);
+            blob.writeTo(dos);
+
+            int[] folded = table.foldedRows();
+            dos.writeInt(folded.length);
+            for (int i : folded) {
+                dos.writeInt(i);
+                for (String s : table.getFoldedText(i)) {
+                    if (s == null) {
+                        dos.writeInt(-1);
+                    } else {
+                        byte[] b = utf8(s);
+                        dos.writeInt(b.length);
+                        dos.write(b);
+                    }
+                }
+            }
+        }
+    }
+
+    public static ParticipantTable readSnapshot(Path in) throws IOException {
+        if (!Files.exists(in)) throw new FileNotFoundException("Snapshot not found: " + in);
+        try (FileChannel ch = FileChannel.open(in, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a snapshot file (too short): " + in);
+            if (size > Integer.MAX_VALUE) throw new IOException("Snapshot larger than 2GB cannot be mapped: " + in);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buf.getInt(0) != MAGIC) throw new IOException("Not a snapshot file (bad magic): " + in);
+            int version = buf.getInt(4);
+            if (version != 1 && version != VERSION) throw new IOException("Unsupported snapshot version " + version + ": " + in);
+            int rows = buf.getInt(8);
+            int[] dictSizes = {buf.getInt(12), buf.getInt(16), buf.getInt(20)};
+            int dictOffset = (int) buf.getLong(24);
+            int columnsOffset = (int) buf.getLong(32);
+            int stringOffsetsOffset = (int) buf.getLong(40);
+            int stringDataOffset = (int) buf.getLong(48);
+            int stringDataLength = (int) buf.getLong(56);
+
+            // snapshot code -> code in this JVM's dictionaries
+            CodeDictionary[] dicts = {GameType.CODES, RoleType.CODES, PersonalityType.CODES};
+            int[][] remap = new int[3][];
+            // snapshot code -> its text where this JVM's dictionary folds it, else null
+            String[][] foldedValue = new String[3][];
+            boolean anyFolded = false;
+            int pos = dictOffset;
+            for (int d = 0; d < 3; d++) {
+                remap[d] = new int[dictSizes[d]];
+                foldedValue[d] = new String[dictSizes[d]];
+                for (int c = 0; c < dictSizes[d]; c++) {
+                    int len = buf.getInt(pos);
+                    byte[] b = new byte[len];
+                    buf.get(pos + 4, b);
+                    String value = new String(b, StandardCharsets.UTF_8);
+                    remap[d][c] = dicts[d].code(value);
+                    if (dicts[d].folds(remap[d][c], value)) {
+                        foldedValue[d][c] = value;
+                        anyFolded = true;
+                    }
+                    pos += 4 + len;
+                }
+            }
+
+            byte[] strings = new byte[stringDataLength];
+            buf.get(stringDataOffset, strings);
+            ByteBuffer offs = buf.slice(stringOffsetsOffset, 4 * (3 * rows + 1));
+
+            int skillAt = columnsOffset, scoreAt = skillAt + rows, gameAt = scoreAt + rows;
+            int roleAt = gameAt + 2 * rows, personalityAt = roleAt + 2 * rows;
+            ParticipantTable table = new ParticipantTable(rows);
+            for (int i = 0; i < rows; i++) {
+                int o = 4 * 3 * i;
+                int a = offs.getInt(o), b = offs.getInt(o + 4), c = offs.getInt(o + 8), e = offs.getInt(o + 12);
+                int g = buf.getShort(gameAt + 2 * i), r = buf.getShort(roleAt + 2 * i), k = buf.get(personalityAt + i);
+                table.add(new String(strings, a, b - a, StandardCharsets.UTF_8),
+                        new String(strings, b, c - b, StandardCharsets.UTF_8),
+                        new String(strings, c, e - c, StandardCharsets.UTF_8),
+                        remap[0][g], remap[1][r],
+                        buf.get(skillAt + i),
+                        buf.get(scoreAt + i),
+                        remap[2][k]);
+                if (anyFolded) table.setFoldedText(i, foldedValue[0][g], foldedValue[1][r], foldedValue[2][k]);
+            }
+            if (version >= 2) {
+                pos = stringDataOffset + stringDataLength;
+                int count = buf.getInt(pos);
+                pos += 4;
+                for (int f = 0; f < count; f++) {
+                    int i = buf.getInt(pos);
+                    pos += 4;
+                    String[] text = new String[3];
+                    for (int d = 0; d < 3; d++) {
+                        int len = buf.getInt(pos);
+                        pos += 4;
+                        if (len < 0) continue;
+                        byte[] s = new byte[len];
+                        buf.get(pos, s);
+                        text[d] = new String(s, StandardCharsets.UTF_8);
+                        pos += len;
+                    }
+                    // text folded at write time wins; otherwise keep any folding on this side
+                    String[] here = table.getFoldedText(i);
+                    for (int d = 0; d < 3 && here != null; d++) if (text[d] == null) text[d] = here[d];
+                    table.setFoldedText(i, text[0], text[1], text[2]);
+                }
+            }
+            return table;
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream blob, String s, int[] offsets, int slot) {
+        offsets[slot] = blob.size();
+        byte[] b = utf8(s);
+        blob.write(b, 0, b.length);
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,290 @@
+package com.teamMate.io;
+
+import com.teamMate.model.GameType;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Streams large synthetic participant CSVs in either supported format.
+ * Rows are generated in fixed-size blocks on a worker pool; each block has its own
+ * SplittableRandom derived from (seed, block index), so the output is identical for any
+ * thread count. Blocks are written in order through a FileChannel with a bounded
+ * number in flight.
+ *
+ * Usage: SyntheticDataGenerator --out file.csv --rows 1000000 [--columns 8|11] [--seed 1]
+ *        [--threads N] [--games Valorant=60,Chess=5,...] [--roles Attacker=50,...]
+ *        [--personality Leader=80,Balanced=15,Thinker=5] [--dup-rate 0.01] [--invalid-rate 0.01]
+ */
+public class SyntheticDataGenerator {
+
+    private static final int BLOCK_ROWS = 32_768;
+    private static final int MAX_BLOCKS_IN_FLIGHT = 16;
+
+    public static class Config {
+        private long rows = 1000;
+        private int columns = 8;
+        private long seed = 1;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private Map<String, Double> gameWeights = uniform(GameType.VALORANT, GameType.DOTA, GameType.FIFA,
+                GameType.BASKETBALL, GameType.BADMINTON, GameType.CHESS, GameType.CS_GO);
+        private Map<String, Double> roleWeights = uniform(RoleType.STRATEGIST, RoleType.ATTACKER,
+                RoleType.DEFENDER, RoleType.SUPPORTER, RoleType.COORDINATOR);
+        private Map<String, Double> personalityWeights = uniform(PersonalityType.LEADER,
+                PersonalityType.BALANCED, PersonalityType.THINKER);
+        private double duplicateRate;
+        private double invalidRate;
+
+        public Config setRows(long rows) { this.rows = rows; return this; }
+        public Config setColumns(int columns) {
+            if (columns != 8 && columns != 11) throw new IllegalArgumentException("columns must be 8 or 11");
+            this.columns = columns;
+            return this;
+        }
+        public Config setSeed(long seed) { this.seed = seed; return this; }
+        public Config setThreads(int threads) { this.threads = Math.max(1, threads); return this; }
+        public Config setGameWeights(Map<String, Double> w) { this.gameWeights = w; return this; }
+        public Config setRoleWeights(Map<String, Double> w) { this.roleWeights = w; return this; }
+        /** Keys are Leader / Balanced / Thinker. */
+        public Config setPersonalityWeights(Map<String, Double> w) { this.personalityWeights = w; return this; }
+        public Config setDuplicateRate(double rate) { this.duplicateRate = rate; return this; }
+        public Config setInvalidRate(double rate) { this.invalidRate = rate; return this; }
+
+        private static Map<String, Double> uniform(String... keys) {
+            Map<String, Double> m = new LinkedHashMap<>();
+            for (String k : keys) m.put(k, 1.0);
+            return m;
+        }
+    }
+
+    // weighted choice over a small fixed set of values
+    private static class Weighted {
+        final String[] names;
+        final byte[][] values;
+        final double[] cumulative;
+
+        Weighted(Map<String, Double> weights) {
+            if (weights.isEmpty()) throw new IllegalArgumentException("empty weight map");
+            names = new String[weights.size()];
+            values = new byte[weights.size()][];
+            cumulative = new double[weights.size()];
+            double sum = 0;
+            int i = 0;
+            for (Map.Entry<String, Double> e : weights.entrySet()) {
+                sum += Math.max(0, e.getValue());
+                names[i] = e.getKey();
+                values[i] = e.getKey().getBytes(StandardCharsets.UTF_8);
+                cumulative[i++] = sum;
+            }
+            if (sum <= 0) throw new IllegalArgumentException("weights must not all be zero");
+            for (int k = 0; k < cumulative.length; k++) cumulative[k] /= sum;
+        }
+
+        int pick(SplittableRandom rnd) {
+            double x = rnd.nextDouble();
+            for (int k = 0; k < cumulative.length - 1; k++) if (x < cumulative[k]) return k;
+            return cumulative.length - 1;
+        }
+    }
+
+    /** Writes cfg.rows data rows (plus header) to out and returns the number of bytes written. */
+    public static long generate(Path out, Config cfg) throws IOException {
+        Weighted games = new Weighted(cfg.gameWeights);
+        Weighted roles = new Weighted(cfg.roleWeights);
+        Weighted personalities = new Weighted(cfg.personalityWeights);
+        long blocks = (cfg.rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+
+        ExecutorService exec = Executors.newFixedThreadPool(cfg.threads);
+        Deque<Future<ByteBuffer>> inFlight = new ArrayDeque<>();
+        long written = 0;
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            String header = cfg.columns == 11
+                    ? "ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,Q1,Q2,Q3,Q4,Q5\n"
+                    : "ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType\n";
+            written += writeFully(ch, ByteBuffer.wrap(header.getBytes(StandardCharsets.UTF_8)));
+
+            for (long b = 0; b < blocks; b++) {
+                if (inFlight.size() >= MAX_BLOCKS_IN_FLIGHT) written += writeFully(ch, await(inFlight.poll()));
+                final long first = b * BLOCK_ROWS;
+                final long last = Math.min(cfg.rows, first + BLOCK_ROWS);
+                final long blockSeed = mix(cfg.seed ^ mix(b));
+                inFlight.add(exec.submit(() -> generateBlock(cfg, games, roles, personalities, first, last, blockSeed)));
+            }
+            while (!inFlight.isEmpty()) written += writeFully(ch, await(inFlight.poll()));
+        } finally {
+            exec.shutdownNow();
+        }
+        return written;
+    }
+
+    private static ByteBuffer generateBlock(Config cfg, Weighted games, Weighted roles, Weighted personalities,
+                                            long first, long last, long blockSeed) {
+        SplittableRandom rnd = new SplittableRandom(blockSeed);
+        RowBuffer buf = new RowBuffer((int) (last - first) * 96);
+        for (long row = first; row < last; row++) {
+            if (cfg.invalidRate > 0 && rnd.nextDouble() < cfg.invalidRate) {
+                writeInvalidRow(buf, row, rnd);
+                continue;
+            }
+            // duplicates reuse the id and email of an earlier row
+            long identity = row > 0 && cfg.duplicateRate > 0 && rnd.nextDouble() < cfg.duplicateRate
+                    ? rnd.nextLong(row) : row;
+            buf.ascii("P").num(identity).ascii(",Participant_").num(row)
+                    .ascii(",user").num(identity).ascii("@university.edu,")
+                    .bytes(games.values[games.pick(rnd)]).ascii(",")
+                    .num(1 + rnd.nextInt(10)).ascii(",")
+                    .bytes(roles.values[roles.pick(rnd)]).ascii(",");
+
+            String type = personalities.names[personalities.pick(rnd)];
+            int total = personalityTotal(type, rnd); // sum of Q1..Q5, 5..25
+            if (cfg.columns == 11) {
+                int[] q = {1, 1, 1, 1, 1};
+                for (int left = total - 5; left > 0; ) {
+                    int i = rnd.nextInt(5);
+                    if (q[i] < 5) { q[i]++; left--; }
+                }
+                for (int i = 0; i < 5; i++) buf.num(q[i]).ascii(i < 4 ? "," : "\n");
+            } else {
+                buf.num(total * 4).ascii(",").ascii(type).ascii("\n");
+            }
+        }
+        return buf.toByteBuffer();
+    }
+
+    // question totals matching PersonalityClassifier's bands once scaled by 4
+    private static int personalityTotal(String type, SplittableRandom rnd) {
+        if (PersonalityType.LEADER.equalsIgnoreCase(type)) return 23 + rnd.nextInt(3);     // 92-100
+        if (PersonalityType.BALANCED.equalsIgnoreCase(type)) return 18 + rnd.nextInt(5);   // 72-88
+        if (PersonalityType.THINKER.equalsIgnoreCase(type)) return 13 + rnd.nextInt(5);    // 52-68
+        return 5 + rnd.nextInt(8);                                                         // 20-48, Unknown
+    }
+
+    private static void writeInvalidRow(RowBuffer buf, long row, SplittableRandom rnd) {
+        switch (rnd.nextInt(4)) {
+            case 0: buf.ascii("P").num(row).ascii(",Broken_").num(row).ascii("\n"); break;          // too few columns
+            case 1: buf.ascii("P").num(row).ascii(",Participant_").num(row)
+                    .ascii(",not-an-email,Chess,5,Attacker,80,Balanced\n"); break;                 // bad email
+            case 2: buf.ascii("P").num(row).ascii(",Participant_").num(row).ascii(",user").num(row)
+                    .ascii("@university.edu,FIFA,ten,Defender,abc,\n"); break;                     // non-numeric
+            default: buf.ascii("\n"); break;                                                        // blank line
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static ByteBuffer await(Future<ByteBuffer> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("generation interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("generator worker failed", e.getCause());
+        }
+    }
+
+    private static int writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        int n = buf.remaining();
+        while (buf.hasRemaining()) ch.write(buf);
+        return n;
+    }
+
+    // growable byte buffer with ASCII and decimal appends
+    private static class RowBuffer {
+        private byte[] data;
+        private int len;
+
+        RowBuffer(int capacity) { data = new byte[Math.max(64, capacity)]; }
+
+        private void ensure(int extra) {
+            if (len + extra > data.length) data = Arrays.copyOf(data, Math.max(len + extra, data.length * 2));
+        }
+
+        RowBuffer ascii(String s) {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) data[len++] = (byte) s.charAt(i);
+            return this;
+        }
+
+        RowBuffer bytes(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, data, len, b.length);
+            len += b.length;
+            return this;
+        }
+
+        RowBuffer num(long v) {
+            ensure(20);
+            if (v == 0) { data[len++] = '0'; return this; }
+            int start = len;
+            while (v > 0) { data[len++] = (byte) ('0' + v % 10); v /= 10; }
+            for (int i = start, j = len - 1; i < j; i++, j--) { byte t = data[i]; data[i] = data[j]; data[j] = t; }
+            return this;
+        }
+
+        ByteBuffer toByteBuffer() { return ByteBuffer.wrap(data, 0, len); }
+    }
+
+    // ---------------- command line ----------------
+    private static final String USAGE = "Usage: SyntheticDataGenerator --out file.csv --rows N [--columns 8|11] [--seed S] "
+            + "[--threads T] [--games A=w,...] [--roles A=w,...] [--personality Leader=w,...] "
+            + "[--dup-rate r] [--invalid-rate r]";
+
+    public static void main(String[] args) throws IOException {
+        Config cfg = new Config();
+        Path out = null;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i] + "\n" + USAGE);
+                return;
+            }
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--out": out = Paths.get(v); break;
+                case "--rows": cfg.setRows(Long.parseLong(v)); break;
+                case "--columns": cfg.setColumns(Integer.parseInt(v)); break;
+                case "--seed": cfg.setSeed(Long.parseLong(v)); break;
+                case "--threads": cfg.setThreads(Integer.parseInt(v)); break;
+                case "--games": cfg.setGameWeights(parseWeights(v)); break;
+                case "--roles": cfg.setRoleWeights(parseWeights(v)); break;
+                case "--personality": cfg.setPersonalityWeights(parseWeights(v)); break;
+                case "--dup-rate": cfg.setDuplicateRate(Double.parseDouble(v)); break;
+                case "--invalid-rate": cfg.setInvalidRate(Double.parseDouble(v)); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (out == null) {
+            System.err.println(USAGE);
+            return;
+        }
+        long start = System.nanoTime();
+        long bytes = generate(out, cfg);
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %d rows (%.1f MB) to %s in %.2fs (%.1f MB/s)%n",
+                cfg.rows, bytes / 1e6, out, secs, bytes / 1e6 / secs);
+    }
+
+    // "Valorant=60,Chess=5" -> ordered weight map
+    static Map<String, Double> parseWeights(String spec) {
+        Map<String, Double> m = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            int eq = part.lastIndexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected name=weight, got: " + part);
+            m.put(part.substring(0, eq).trim(), Double.parseDouble(part.substring(eq + 1).trim()));
+        }
+        return m;
+    }
+}
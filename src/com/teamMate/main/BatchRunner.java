@@ -0,0 +1,252 @@
+package com.teamMate.main;
+
+import com.teamMate.core.ConstraintSet;
+import com.teamMate.core.FormationMode;
+import com.teamMate.core.GameCapConstraint;
+import com.teamMate.core.MinLeadersConstraint;
+import com.teamMate.core.MultiSeedFormation;
+import com.teamMate.core.ParticipantRegistry;
+import com.teamMate.core.ParticipantTable;
+import com.teamMate.core.ShardedFormation;
+import com.teamMate.core.SkillGapConstraint;
+import com.teamMate.core.Team;
+import com.teamMate.core.TeamBuilder;
+import com.teamMate.core.TeamOptimizer;
+import com.teamMate.io.CSVHandler;
+import com.teamMate.io.SnapshotHandler;
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Non-interactive team formation over many event files in one JVM.
+ *
+ * Usage: BatchRunner --input <file.csv|file.snap|dir> [--input ...] [--team-size 5] [--cap 2]
+ *        [--out formed_teams] [--threads N] [--seed S] [--optimize-ms 0] [--mode standard|balanced|sharded|exact]
+ *        [--shards N] [--game-cap Game=N ...] [--min-leaders N] [--max-skill-gap N]
+ *
+ * Directories are scanned (non-recursively) for .csv and .snap files. Each file is deduplicated
+ * by id/email like the interactive import, formed with a seeded TeamBuilder and written to
+ * {out}/{name}_teams.csv. In exact mode --optimize-ms is the solver's time limit.
+ * --game-cap overrides the cap for one game (hard rule; names are read like the CSV game column
+ * and must be a known game); --min-leaders and --max-skill-gap add soft rules, which only the
+ * optimizer scores, so they imply --optimize-ms DEFAULT_RULES_OPTIMIZE_MS unless a budget is
+ * given; exact mode only takes the standard rules. Files are processed in parallel; per-file timings are printed and
+ * the run's metrics (see Metrics.summaryJson) are written to {out}/metrics.json.
+ * Inputs whose outputs would collide (a.csv next to a.snap) are rejected. The exit status is
+ * 0 when every file was formed, 1 when any file or the setup failed and 2 for bad arguments.
+ */
+public class BatchRunner {
+
+    /** Exits with 1 if any file failed or setup failed, 2 for bad arguments, so schedulers see failures. */
+    public static void main(String[] args) {
+        int status = run(args);
+        if (status != 0) System.exit(status);
+    }
+
+    // optimizer budget per file when soft rules are given without --optimize-ms
+    static final long DEFAULT_RULES_OPTIMIZE_MS = 1000;
+
+    static int run(String[] args) {
+        List<Path> inputs = new ArrayList<>();
+        int teamSize = 5;
+        int cap = 2;
+        Path outDir = Paths.get("formed_teams");
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        long optimizeMs = 0;
+        FormationMode mode = FormationMode.STANDARD;
+        int shards = Runtime.getRuntime().availableProcessors();
+        Map<String, Integer> gameCaps = new LinkedHashMap<>();
+        int minLeaders = 0;
+        int maxSkillGap = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if (a.equals("--batch")) continue;
+            if (i + 1 >= args.length) return usage("Missing value for " + a);
+            String v = args[++i];
+            try {
+                switch (a) {
+                    case "--input": inputs.add(Paths.get(v)); break;
+                    case "--team-size": teamSize = Integer.parseInt(v); break;
+                    case "--cap": cap = Integer.parseInt(v); break;
+                    case "--out": outDir = Paths.get(v); break;
+                    case "--threads": threads = Math.max(1, Integer.parseInt(v)); break;
+                    case "--seed": seed = Long.parseLong(v); break;
+                    case "--optimize-ms": optimizeMs = Long.parseLong(v); break;
+                    case "--mode": mode = FormationMode.parse(v); break;
+                    case "--shards": shards = Math.max(1, Integer.parseInt(v)); break;
+                    case "--game-cap": {
+                        int eq = v.lastIndexOf('=');
+                        if (eq <= 0) return usage("--game-cap expects Game=N: " + v);
+                        String game = knownGame(v.substring(0, eq));
+                        if (game == null) return usage("Unknown game in --game-cap: " + v.substring(0, eq).trim());
+                        gameCaps.put(game, Integer.parseInt(v.substring(eq + 1).trim()));
+                        break;
+                    }
+                    case "--min-leaders": minLeaders = Integer.parseInt(v); break;
+                    case "--max-skill-gap": maxSkillGap = Integer.parseInt(v); break;
+                    default:
+                        return usage("Unknown option: " + a);
+                }
+            } catch (NumberFormatException e) {
+                return usage("Invalid number for " + a + ": " + v);
+            }
+        }
+
+        boolean customRules = !gameCaps.isEmpty() || minLeaders > 0 || maxSkillGap >= 0;
+        if (customRules && mode == FormationMode.EXACT) return usage("Exact mode does not take --game-cap, --min-leaders or --max-skill-gap");
+        if ((minLeaders > 0 || maxSkillGap >= 0) && optimizeMs <= 0) optimizeMs = DEFAULT_RULES_OPTIMIZE_MS;
+        ConstraintSet rules = ConstraintSet.standard(new GameCapConstraint(cap, gameCaps));
+        if (minLeaders > 0) rules.soft(new MinLeadersConstraint(minLeaders), TeamOptimizer.PERSONALITY_WEIGHT);
+        if (maxSkillGap >= 0) rules.soft(new SkillGapConstraint(maxSkillGap), TeamOptimizer.SKILL_VARIANCE_WEIGHT);
+
+        List<Path> files;
+        try {
+            files = expand(inputs);
+            Files.createDirectories(outDir);
+        } catch (IOException e) {
+            System.err.println("Batch setup failed: " + e.getMessage());
+            return 1;
+        }
+        if (files.isEmpty()) return usage("No input files");
+
+        // two inputs named a.csv and a.snap (or a.csv in two directories) would write the same output
+        Map<String, Path> outputs = new HashMap<>();
+        for (Path f : files) {
+            Path other = outputs.putIfAbsent(baseName(f), f);
+            if (other != null) return usage("Inputs " + other + " and " + f + " would both write " + baseName(f) + "_teams.csv");
+        }
+
+        System.out.println("Batch: " + files.size() + " file(s), team size " + teamSize + ", cap " + cap
+                + (gameCaps.isEmpty() ? "" : " " + gameCaps) + (minLeaders > 0 ? ", min leaders " + minLeaders : "")
+                + (maxSkillGap >= 0 ? ", max skill gap " + maxSkillGap : "")
+                + (optimizeMs > 0 ? ", optimize " + optimizeMs + " ms" : "") + ", " + threads + " thread(s)");
+        Metrics.registerMBean();
+        long start = System.nanoTime();
+        int workers = Math.min(threads, files.size());
+        ExecutorService exec = Executors.newFixedThreadPool(workers);
+        // each file's reader and shard builds get its share of the cores rather than all of them
+        int readers = Math.max(1, Runtime.getRuntime().availableProcessors() / workers);
+        List<Future<String>> results = new ArrayList<>();
+        for (Path f : files) {
+            final int ts = teamSize, c = cap, sh = shards;
+            final long s = seed, opt = optimizeMs;
+            final FormationMode m = mode;
+            final Path out = outDir.resolve(baseName(f) + "_teams.csv");
+            results.add(exec.submit(() -> processFile(f, out, ts, c, rules, s, opt, m, sh, readers)));
+        }
+
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                System.out.println(results.get(i).get());
+            } catch (Exception e) {
+                failed++;
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                System.err.println(files.get(i) + ": FAILED " + cause.getMessage());
+            }
+        }
+        exec.shutdown();
+        System.out.printf("Batch finished: %d ok, %d failed, %d ms total%n",
+                files.size() - failed, failed, (System.nanoTime() - start) / 1_000_000);
+        Path metricsOut = outDir.resolve("metrics.json");
+        try {
+            Files.writeString(metricsOut, Metrics.summaryJson() + System.lineSeparator());
+            System.out.println("Metrics written to " + metricsOut);
+        } catch (IOException e) {
+            System.err.println("Could not write metrics: " + e.getMessage());
+        }
+        return failed > 0 ? 1 : 0;
+    }
+
+    private static String processFile(Path in, Path out, int teamSize, int cap, ConstraintSet rules, long seed, long optimizeMs,
+                                      FormationMode mode, int shards, int readers)
+            throws IOException, InterruptedException, ExecutionException {
+        long t0 = System.nanoTime();
+        ParticipantRegistry registry = new ParticipantRegistry();
+        int loaded;
+        if (hasExtension(in, ".snap")) {
+            ParticipantTable table = SnapshotHandler.readSnapshot(in);
+            loaded = table.size();
+            registry.addAll(table);
+        } else {
+            List<Participant> rows = CSVHandler.readParticipants(in, readers);
+            loaded = rows.size();
+            registry.addAll(rows);
+        }
+        List<Participant> pool = registry.getAll();
+        long t1 = System.nanoTime();
+
+        List<Team> teams;
+        if (mode == FormationMode.SHARDED) {
+            teams = ShardedFormation.build(pool, teamSize, rules, seed, shards, readers);
+        } else if (mode == FormationMode.EXACT) {
+            // the budget is the solver's time limit; its result needs no further optimizing
+            teams = MultiSeedFormation.run(pool, teamSize, cap, 1, seed, optimizeMs, mode).getTeams();
+        } else {
+            TeamBuilder builder = new TeamBuilder(pool, teamSize, rules, seed);
+            teams = mode == FormationMode.SKILL_BALANCED ? builder.buildBalancedTeams() : builder.buildTeams();
+        }
+        if (optimizeMs > 0 && mode != FormationMode.EXACT) new TeamOptimizer(teams, teamSize, rules, seed).optimize(optimizeMs);
+        TeamBuilder.recordRates(teams, teamSize);
+        long t2 = System.nanoTime();
+
+        CSVHandler.writeTeams(out, teams);
+        long t3 = System.nanoTime();
+
+        return String.format("%s: %d participants (%d duplicates), %d teams, skill spread %.2f -> %s | read %d ms, form %d ms, write %d ms",
+                in.getFileName(), pool.size(), loaded - pool.size(), teams.size(), TeamBuilder.skillSpread(teams), out,
+                (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, (t3 - t2) / 1_000_000);
+    }
+
+    private static List<Path> expand(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path p : inputs) {
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.list(p)) {
+                    s.filter(f -> Files.isRegularFile(f) && (hasExtension(f, ".csv") || hasExtension(f, ".snap")))
+                            .sorted().forEach(files::add);
+                }
+            } else {
+                files.add(p);
+            }
+        }
+        return files;
+    }
+
+    // case-insensitive, so DATA.SNAP found by a directory scan is also read as a snapshot
+    private static boolean hasExtension(Path f, String ext) {
+        return f.getFileName().toString().toLowerCase().endsWith(ext);
+    }
+
+    // the survey's spelling of a game name as the CSV import reads it, or null if it is no known game
+    private static String knownGame(String name) {
+        String canonical = CSVHandler.canonicalGame(name);
+        for (String g : GameType.VALUES) {
+            if (g.equalsIgnoreCase(canonical)) return g;
+        }
+        return null;
+    }
+
+    private static String baseName(Path f) {
+        String n = f.getFileName().toString();
+        int dot = n.lastIndexOf('.');
+        return dot > 0 ? n.substring(0, dot) : n;
+    }
+
+    private static int usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: BatchRunner --input <file.csv|file.snap|dir> [--input ...] [--team-size 5] [--cap 2] "
+                + "[--out formed_teams] [--threads N] [--seed S] [--optimize-ms 0] [--mode standard|balanced|sharded|exact] [--shards N] "
+                + "[--game-cap Game=N ...] [--min-leaders N] [--max-skill-gap N]");
+        return 2;
+    }
+}
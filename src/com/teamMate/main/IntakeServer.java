@@ -0,0 +1,291 @@
+package com.teamMate.main;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.teamMate.core.ParticipantRegistry;
+import com.teamMate.core.PersonalityClassifier;
+import com.teamMate.io.ParticipantJournal;
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.RoleType;
+import com.teamMate.util.ValidationUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP endpoint for survey submissions, for registration spikes the console cannot absorb.
+ *
+ * POST /survey with a form-encoded body: id, name, email, game, role, skill (1-10), q1..q5 (1-5).
+ * Game and role must be one of the survey's choices (GameType/RoleType.VALUES, any case; blank
+ * is Other), so clients cannot grow the code dictionaries with free text. Answers 201 with the personality classification, 400 for invalid input and 409 when the id
+ * or email is already registered. GET /stats returns the participant count.
+ *
+ * Every exchange runs on its own virtual thread and goes straight into the lock-striped
+ * ParticipantRegistry, so unrelated submissions never wait for each other. With a journal the
+ * 201 is only sent once the submission is on disk; concurrent requests share fsyncs through
+ * the journal's group commit.
+ *
+ * There is no authentication, so the server listens on the loopback interface unless a bind
+ * address is given explicitly.
+ *
+ * Standalone: java -jar teammate.jar --serve [--port 8080] [--bind 127.0.0.1] [--journal dir]
+ */
+public class IntakeServer implements AutoCloseable {
+
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final String USAGE = "Usage: --serve [--port 8080] [--bind 127.0.0.1] [--journal dir]";
+
+    // JDK server settings, read once when the first server starts. It writes headers and body
+    // separately, so without TCP_NODELAY every keep-alive response waits out the client's delayed
+    // ACK (~40 ms); and it closes keep-alive connections beyond 200 idle ones, which a burst of
+    // clients between two requests easily exceeds.
+    static {
+        defaultProperty("sun.net.httpserver.nodelay", "true");
+        defaultProperty("sun.net.httpserver.maxIdleConnections", "4096");
+    }
+
+    private static void defaultProperty(String key, String value) {
+        if (System.getProperty(key) == null) System.setProperty(key, value);
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ParticipantRegistry registry;
+    private final ParticipantJournal journal;
+
+    private IntakeServer(HttpServer server, ParticipantRegistry registry, ParticipantJournal journal) {
+        this.server = server;
+        this.registry = registry;
+        this.journal = journal;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/survey", this::handleSurvey);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    /** Starts serving on the loopback interface at {@code port} (0 picks a free one); {@code journal} may be null. */
+    public static IntakeServer start(int port, ParticipantRegistry registry, ParticipantJournal journal) throws IOException {
+        return start(InetAddress.getLoopbackAddress(), port, registry, journal);
+    }
+
+    /** Starts serving on {@code bind} (e.g. 0.0.0.0 for every interface) at {@code port}. */
+    public static IntakeServer start(InetAddress bind, int port, ParticipantRegistry registry, ParticipantJournal journal) throws IOException {
+        IntakeServer s = new IntakeServer(HttpServer.create(new InetSocketAddress(bind, port), 1024), registry, journal);
+        s.server.start();
+        return s;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Stops accepting, gives running exchanges a second to finish. */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    public static void main(String[] args) {
+        int port = 8080;
+        String bind = null;
+        String journalDir = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--serve")) continue;
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                return;
+            }
+            String v = args[++i];
+            switch (args[i - 1]) {
+                case "--port":
+                    try {
+                        port = Integer.parseInt(v);
+                    } catch (NumberFormatException e) {
+                        System.err.println("Invalid port " + v + "\n" + USAGE);
+                        return;
+                    }
+                    break;
+                case "--bind": bind = v; break;
+                case "--journal": journalDir = v; break;
+                default:
+                    System.err.println("Unknown option " + args[i - 1] + "\n" + USAGE);
+                    return;
+            }
+        }
+        Metrics.registerMBean();
+        ParticipantRegistry registry = new ParticipantRegistry();
+        try {
+            ParticipantJournal journal = journalDir == null ? null : ParticipantJournal.open(Paths.get(journalDir), registry);
+            IntakeServer server = start(bind == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bind),
+                    port, registry, journal);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    if (journal != null) journal.close();
+                } catch (IOException e) {
+                    System.err.println("Journal close failed: " + e.getMessage());
+                }
+                System.out.println("Metrics: " + Metrics.summaryJson());
+            }));
+            System.out.println("Intake server on http://" + server.server.getAddress().getHostString() + ":" + server.port() + "/survey ("
+                    + registry.size() + " participants registered)");
+            Thread.currentThread().join();
+        } catch (IOException e) {
+            System.err.println("Intake server failed to start: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleSurvey(HttpExchange ex) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (!ex.getRequestMethod().equals("POST")) {
+                send(ex, 405, error("use POST"));
+                return;
+            }
+            byte[] body = readBody(ex.getRequestBody());
+            if (body == null) {
+                send(ex, 413, error("body too large"));
+                return;
+            }
+            Participant p;
+            try {
+                p = toParticipant(parseForm(new String(body, StandardCharsets.UTF_8)));
+            } catch (IllegalArgumentException bad) {
+                Metrics.increment("intake.invalid");
+                send(ex, 400, error(bad.getMessage()));
+                return;
+            }
+            if (!registry.add(p)) {
+                Metrics.increment("intake.duplicates");
+                send(ex, 409, error(registry.containsId(p.getId()) ? "id already registered" : "email already registered"));
+                return;
+            }
+            if (journal != null) {
+                try {
+                    journal.sync();
+                } catch (IOException e) {
+                    // not durable: don't keep serving a participant a restart would lose
+                    registry.remove(p);
+                    throw e;
+                }
+            }
+            Metrics.increment("intake.accepted");
+            send(ex, 201, "{\"id\":" + quote(p.getId()) + ",\"personalityType\":" + quote(p.getPersonalityType())
+                    + ",\"personalityScore\":" + p.getPersonalityScore() + "}");
+        } catch (IOException e) {
+            Metrics.increment("intake.errors");
+            send(ex, 500, error(String.valueOf(e)));
+        } finally {
+            ex.close();
+            Metrics.lap("intake.request", start);
+        }
+    }
+
+    private void handleStats(HttpExchange ex) throws IOException {
+        try {
+            send(ex, 200, "{\"participants\":" + registry.size() + "}");
+        } finally {
+            ex.close();
+        }
+    }
+
+    /** Same checks and classification as the console survey. */
+    static Participant toParticipant(Map<String, String> form) {
+        String id = required(form, "id");
+        String name = required(form, "name");
+        String email = required(form, "email");
+        if (!ValidationUtil.isValidEmail(email)) throw new IllegalArgumentException("invalid email");
+        int skill = number(form, "skill");
+        if (!ValidationUtil.isValidSkill(skill)) throw new IllegalArgumentException("skill must be 1-10");
+        int[] q = new int[5];
+        for (int i = 0; i < 5; i++) {
+            q[i] = number(form, "q" + (i + 1));
+            if (q[i] < 1 || q[i] > 5) throw new IllegalArgumentException("q" + (i + 1) + " must be 1-5");
+        }
+        String game = choice(form, "game", GameType.VALUES, GameType.OTHER);
+        String role = choice(form, "role", RoleType.VALUES, RoleType.OTHER);
+        int scaled = PersonalityClassifier.scaledScore(q[0], q[1], q[2], q[3], q[4]);
+        return new Participant(id, name, email, game, role, skill, scaled, PersonalityClassifier.classify(scaled));
+    }
+
+    // the survey's own spelling of the chosen value; blank means {@code blank}
+    private static String choice(Map<String, String> form, String field, List<String> allowed, String blank) {
+        String v = form.getOrDefault(field, "").trim();
+        if (v.isEmpty()) return blank;
+        for (String a : allowed) {
+            if (a.equalsIgnoreCase(v)) return a;
+        }
+        throw new IllegalArgumentException(field + " must be one of " + String.join(", ", allowed));
+    }
+
+    private static String required(Map<String, String> form, String field) {
+        String v = form.getOrDefault(field, "").trim();
+        if (v.isEmpty()) throw new IllegalArgumentException(field + " is required");
+        return v;
+    }
+
+    private static int number(Map<String, String> form, String field) {
+        try {
+            return Integer.parseInt(required(form, field));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+
+    static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String k = eq < 0 ? pair : pair.substring(0, eq);
+            String v = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                form.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException malformed) {
+                throw new IllegalArgumentException("malformed form field " + k);
+            }
+        }
+        return form;
+    }
+
+    // null when the body is larger than MAX_BODY_BYTES
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] b = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, b.length);
+        ex.getResponseBody().write(b);
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -1,25 +1,70 @@
 package com.teamMate.main;
 
+import com.teamMate.core.DashboardStats;
+import com.teamMate.core.FormationCache;
+import com.teamMate.core.ExactSolver;
+import com.teamMate.core.ParticipantRegistry;
+import com.teamMate.core.ParticipantSearchIndex;
+import com.teamMate.core.PoolFingerprint;
+import com.teamMate.core.ParticipantTable;
 import com.teamMate.core.TeamBuilder;
+import com.teamMate.core.FormationMode;
+import com.teamMate.core.MultiSeedFormation;
 import com.teamMate.core.Team;
+import com.teamMate.core.TeamMaintainer;
 import com.teamMate.io.CSVHandler;
+import com.teamMate.io.ParticipantJournal;
+import com.teamMate.io.SnapshotHandler;
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.CodeDictionary;
+import com.teamMate.model.GameType;
 import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
 import com.teamMate.util.ValidationUtil;
 
+import java.io.IOException;
 import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.*;
 
 public class Main {
 
     private static final Scanner sc = new Scanner(System.in);
-    private static final List<String> GAMES = Arrays.asList("Valorant","DOTA 2","FIFA","Basketball","Badminton","CS:GO","Chess","Other");
-    private static final List<String> ROLES = Arrays.asList("Strategist","Attacker","Defender","Supporter","Coordinator","Other");
+    private static final List<String> GAMES = GameType.VALUES;
+    private static final List<String> ROLES = RoleType.VALUES;
 
     public static void main(String[] args) {
+        // --serve runs the HTTP intake endpoint (see IntakeServer)
+        if (args.length > 0 && args[0].equals("--serve")) {
+            IntakeServer.main(args);
+            return;
+        }
+        // any other command-line arguments select the headless batch mode (see BatchRunner)
+        if (args.length > 0) {
+            BatchRunner.main(args);
+            return;
+        }
         System.out.println("=== TeamMate ===");
+        Metrics.registerMBean();
 
-        List<Participant> participants = new ArrayList<>();
+        ParticipantRegistry participants = new ParticipantRegistry();
+        participants.addListener(stats);
+        participants.addListener(search);
+        participants.addListener(fingerprint);
+
+        // the journal goes first so recovered participants are in place before any import
+        System.out.print("Journal directory for durable storage (press Enter to run without one): ");
+        String journalDir = sc.nextLine().trim();
+        if (!journalDir.isEmpty()) {
+            try {
+                long start = System.nanoTime();
+                journal = ParticipantJournal.open(Paths.get(journalDir), participants);
+                System.out.printf("Recovered %d participants from the journal in %d ms.%n",
+                        participants.size(), (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException e) {
+                System.err.println("Could not open the journal, changes will not be saved: " + e.getMessage());
+            }
+        }
 
         // initial load prompt
         System.out.print("Load participants CSV (press Enter to skip or type path): ");
@@ -29,17 +74,19 @@ public class Main {
                 List<Participant> fromCsv = CSVHandler.readParticipants(Paths.get(pth));
                 // deduplicate by id/email
                 for (Participant p : fromCsv) {
-                    if (ValidationUtil.idExists(participants, p.getId()) || ValidationUtil.emailExists(participants, p.getEmail())) {
+                    if (!participants.add(p)) {
                         System.out.println("Skipped duplicate from CSV: " + p.getId() + " / " + p.getEmail());
-                    } else {
-                        participants.add(p);
                     }
                 }
+                persist();
                 System.out.println("Loaded from CSV: " + participants.size());
             } catch (Exception e) {
                 System.err.println("Failed to load CSV: " + e.getMessage());
             }
         }
+        System.out.print("Formation cache directory (press Enter to keep results in memory only): ");
+        String cacheDir = sc.nextLine().trim();
+        formationCache = new FormationCache(FORMATION_CACHE_BYTES, cacheDir.isEmpty() ? null : Paths.get(cacheDir));
 
         while (true) {
             System.out.println("\nSelect User Type:");
@@ -51,6 +98,8 @@ public class Main {
             if (opt.equals("1")) participantMenu(participants);
             else if (opt.equals("2")) organizerMenu(participants);
             else if (opt.equals("3")) {
+                if (intake != null) intake.close();
+                closeJournal();
                 System.out.println("Goodbye.");
                 break;
             } else System.out.println("Invalid option.");
@@ -58,14 +107,15 @@ public class Main {
     }
 
     // ---------------- Participant menu ---------------
-    private static void participantMenu(List<Participant> participants) {
+    private static void participantMenu(ParticipantRegistry participants) {
         while (true) {
             System.out.println("\n===== PARTICIPANT MENU =====");
             System.out.println("1. Complete Survey");
             System.out.println("2. View My Results");
             System.out.println("3. Edit My Details");
             System.out.println("4. Submit Preferences");
-            System.out.println("5. Back");
+            System.out.println("5. Withdraw");
+            System.out.println("6. Back");
             System.out.print("> ");
             String opt = sc.nextLine().trim();
             switch (opt) {
@@ -73,13 +123,14 @@ public class Main {
                 case "2": viewMyResults(participants); break;
                 case "3": editDetails(participants); break;
                 case "4": submitPreferences(participants); break;
-                case "5": return;
+                case "5": withdraw(participants); break;
+                case "6": return;
                 default: System.out.println("Invalid option."); break;
             }
         }
     }
 
-    private static void completeSurvey(List<Participant> participants) {
+    private static void completeSurvey(ParticipantRegistry participants) {
         System.out.println("\n--- Complete Survey ---");
         String id = promptNonEmpty("Enter your ID (unique): ");
         if (ValidationUtil.idExists(participants, id)) {
@@ -122,77 +173,140 @@ public class Main {
         String pType = com.teamMate.core.PersonalityClassifier.classify(scaled);
 
         Participant p = new Participant(id, name, email, game, role, skill, scaled, pType);
-        participants.add(p);
+        // the intake server may have registered the same id or email since it was checked
+        if (!participants.add(p)) {
+            System.out.println("Survey not submitted: that ID or email was registered in the meantime.");
+            return;
+        }
+        persist();
         System.out.println("Survey submitted. You are classified as: " + pType + " (" + scaled + ")");
+        if (maintainer != null) {
+            Team t = maintainer.addLateJoiner(p);
+            System.out.println("Teams were already formed; you have been placed in Team " + t.getTeamId() + ".");
+        }
     }
 
-    private static void viewMyResults(List<Participant> participants) {
+    private static void viewMyResults(ParticipantRegistry participants) {
         System.out.print("Enter your ID or email: ");
         String key = sc.nextLine().trim();
-        Optional<Participant> found = participants.stream().filter(p -> p.getId().equalsIgnoreCase(key) || p.getEmail().equalsIgnoreCase(key)).findFirst();
-        if (found.isPresent()) {
-            System.out.println("Your details:\n" + found.get());
+        Participant found = participants.findByIdOrEmail(key);
+        if (found != null) {
+            System.out.println("Your details:\n" + found);
         } else System.out.println("Participant not found.");
     }
 
-    private static void editDetails(List<Participant> participants) {
+    private static void editDetails(ParticipantRegistry participants) {
         System.out.print("Enter your ID: ");
         String id = sc.nextLine().trim();
-        for (Participant p : participants) {
-            if (p.getId().equalsIgnoreCase(id)) {
-                System.out.println("Editing: " + p);
-                String newName = promptOptional("Name ("+p.getName()+"): ");
-                if (!newName.isEmpty()) p.setName(newName);
-
-                String newEmail = promptOptional("Email ("+p.getEmail()+"): ");
-                if (!newEmail.isEmpty()) {
-                    while (!ValidationUtil.isValidEmail(newEmail) || (ValidationUtil.emailExists(participants, newEmail) && !newEmail.equalsIgnoreCase(p.getEmail()))) {
-                        if (!ValidationUtil.isValidEmail(newEmail)) System.out.println("Invalid email format.");
-                        else System.out.println("Email already in use.");
-                        newEmail = promptOptional("Email ("+p.getEmail()+"): ");
-                        if (newEmail.isEmpty()) break;
-                    }
-                    if (!newEmail.isEmpty()) p.setEmail(newEmail);
-                }
+        Participant p = participants.findById(id);
+        if (p == null) {
+            System.out.println("Participant not found.");
+            return;
+        }
+        System.out.println("Editing: " + p);
+        String newName = promptOptional("Name ("+p.getName()+"): ");
+
+        String newEmail = promptOptional("Email ("+p.getEmail()+"): ");
+        while (!newEmail.isEmpty() && (!ValidationUtil.isValidEmail(newEmail) || (ValidationUtil.emailExists(participants, newEmail) && !newEmail.equalsIgnoreCase(p.getEmail())))) {
+            if (!ValidationUtil.isValidEmail(newEmail)) System.out.println("Invalid email format.");
+            else System.out.println("Email already in use.");
+            newEmail = promptOptional("Email ("+p.getEmail()+"): ");
+        }
 
-                String newGame = promptOptional("Game ("+p.getGame()+"): ");
-                if (!newGame.isEmpty()) p.setGame(newGame);
+        String newGame = promptOptional("Game ("+p.getGame()+"): ");
+        String newRole = promptOptional("Role ("+p.getRole()+"): ");
 
-                String newRole = promptOptional("Role ("+p.getRole()+"): ");
-                if (!newRole.isEmpty()) p.setRole(newRole);
+        int newSkill = p.getSkillRating();
+        String skillIn = promptOptional("Skill ("+p.getSkillRating()+"): ");
+        if (!skillIn.isEmpty()) {
+            int s = promptParseInt(skillIn, p.getSkillRating());
+            if (ValidationUtil.isValidSkill(s)) newSkill = s;
+        }
 
-                String skillIn = promptOptional("Skill ("+p.getSkillRating()+"): ");
-                if (!skillIn.isEmpty()) {
-                    int s = promptParseInt(skillIn, p.getSkillRating());
-                    if (ValidationUtil.isValidSkill(s)) p.setSkillRating(s);
-                }
+        // apply once all input is collected
+        if (!newName.isEmpty()) participants.update(p, () -> p.setName(newName));
+        if (!newEmail.isEmpty() && !participants.changeEmail(p, newEmail)) System.out.println("Email already in use.");
+        if (!newGame.isEmpty() || !newRole.isEmpty() || newSkill != p.getSkillRating()) {
+            final String game = newGame, role = newRole;
+            final int skill = newSkill;
+            updatePlacement(participants, p, () -> {
+                if (!game.isEmpty()) p.setGame(game);
+                if (!role.isEmpty()) p.setRole(role);
+                p.setSkillRating(skill);
+            });
+        }
 
-                System.out.println("Updated: " + p);
-                return;
-            }
+        persist();
+        System.out.println("Updated: " + p);
+    }
+
+    private static void submitPreferences(ParticipantRegistry participants) {
+        System.out.print("Enter your ID: ");
+        String id = sc.nextLine().trim();
+        Participant p = participants.findById(id);
+        if (p == null) {
+            System.out.println("Participant not found.");
+            return;
         }
-        System.out.println("Participant not found.");
+        System.out.println("Current preferences: Game=" + p.getGame() + " Role=" + p.getRole());
+        String game = chooseFromList(GAMES, "Game");
+        String role = chooseFromList(ROLES, "Role");
+        updatePlacement(participants, p, () -> {
+            p.setGame(game);
+            p.setRole(role);
+        });
+        persist();
+        System.out.println("Preferences updated.");
     }
 
-    private static void submitPreferences(List<Participant> participants) {
+    private static void withdraw(ParticipantRegistry participants) {
         System.out.print("Enter your ID: ");
         String id = sc.nextLine().trim();
-        for (Participant p : participants) {
-            if (p.getId().equalsIgnoreCase(id)) {
-                System.out.println("Current preferences: Game=" + p.getGame() + " Role=" + p.getRole());
-                String game = chooseFromList(GAMES, "Game");
-                String role = chooseFromList(ROLES, "Role");
-                p.setGame(game);
-                p.setRole(role);
-                System.out.println("Preferences updated.");
-                return;
-            }
+        Participant p = participants.findById(id);
+        if (p == null) {
+            System.out.println("Participant not found.");
+            return;
+        }
+        participants.remove(p);
+        if (maintainer != null) maintainer.withdraw(p);
+        persist();
+        System.out.println("Withdrawn: " + p.getId());
+    }
+
+    /** Waits until every change so far is on disk; a no-op without a journal. */
+    private static void persist() {
+        if (journal == null) return;
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            System.err.println("Journal write failed, recent changes may be lost: " + e.getMessage());
+        }
+    }
+
+    private static void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Journal close failed: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    /** Applies a game/role/skill edit, moving the participant between formed teams if needed. */
+    private static void updatePlacement(ParticipantRegistry participants, Participant p, Runnable edit) {
+        if (maintainer == null || maintainer.teamOf(p) == null) {
+            participants.update(p, edit);
+            return;
         }
-        System.out.println("Participant not found.");
+        Team before = maintainer.detach(p);
+        participants.update(p, edit);
+        Team after = maintainer.reattach(p);
+        if (after != before) System.out.println("Moved from Team " + before.getTeamId() + " to Team " + after.getTeamId() + ".");
     }
 
     // ---------------- Organizer menu ----------------
-    private static void organizerMenu(List<Participant> participants) {
+    private static void organizerMenu(ParticipantRegistry participants) {
         while (true) {
             System.out.println("\n===== ORGANIZER MENU =====");
             System.out.println("1. Upload CSV");
@@ -201,7 +315,11 @@ public class Main {
             System.out.println("4. View All Teams");
             System.out.println("5. Export to CSV");
             System.out.println("6. Dashboard");
-            System.out.println("7. Back");
+            System.out.println("7. Save Snapshot");
+            System.out.println("8. Load Snapshot");
+            System.out.println("9. " + (intake == null ? "Start" : "Stop") + " Intake Server");
+            System.out.println("10. Search Participants");
+            System.out.println("11. Back");
             System.out.print("> ");
             String opt = sc.nextLine().trim();
             switch (opt) {
@@ -211,58 +329,141 @@ public class Main {
                 case "4": viewAllTeams(); break;
                 case "5": exportTeams(); break;
                 case "6": dashboard(participants); break;
-                case "7": return;
+                case "7": saveSnapshot(participants); break;
+                case "8": loadSnapshot(participants); break;
+                case "9": toggleIntakeServer(participants); break;
+                case "10": searchParticipants(); break;
+                case "11": return;
                 default: System.out.println("Invalid option."); break;
             }
         }
     }
 
+    private static void toggleIntakeServer(ParticipantRegistry participants) {
+        if (intake != null) {
+            intake.close();
+            intake = null;
+            System.out.println("Intake server stopped. " + participants.size() + " participants registered.");
+            return;
+        }
+        System.out.print("Port (default 8080): ");
+        String portS = sc.nextLine().trim();
+        int port = portS.isEmpty() ? 8080 : parseIntOr(portS, 8080);
+        try {
+            intake = IntakeServer.start(port, participants, journal);
+            System.out.println("Accepting surveys at http://localhost:" + intake.port() + "/survey"
+                    + " (POST id, name, email, game, role, skill, q1..q5). Formed teams are not updated;"
+                    + " run formation again once intake closes.");
+        } catch (IOException e) {
+            System.err.println("Could not start the intake server: " + e.getMessage());
+        }
+    }
+
     // Stored teams after formation
     private static List<Team> lastFormedTeams = new ArrayList<>();
     private static int lastTeamSize = 0;
     private static int lastGameCap = 2;
+    private static long lastSeed = 1;
+    // keeps lastFormedTeams current for late joiners, withdrawals and edits
+    private static TeamMaintainer maintainer;
+    // dashboard figures, updated by the registry and the maintainer as things change
+    private static final DashboardStats stats = new DashboardStats();
+    // name / id / email lookup for organizers, kept in sync by the registry
+    private static final ParticipantSearchIndex search = new ParticipantSearchIndex();
+    // pool content hash and earlier formation results, so a repeated run is answered from the cache
+    private static final PoolFingerprint fingerprint = new PoolFingerprint();
+    private static final long FORMATION_CACHE_BYTES = 64L << 20;
+    private static FormationCache formationCache = new FormationCache(FORMATION_CACHE_BYTES, null);
+    // write-ahead journal of participant changes; null when running without one
+    private static ParticipantJournal journal;
+    // HTTP survey intake, running alongside the console while non-null
+    private static IntakeServer intake;
+
+    /** Organizer lookup by id, email or name, with prefix and typo-tolerant matches. */
+    private static void searchParticipants() {
+        System.out.print("Search by ID, email or name: ");
+        String key = sc.nextLine().trim();
+        List<ParticipantSearchIndex.Match> matches = search.searchRanked(key, 10);
+        if (matches.isEmpty()) {
+            System.out.println("No matches.");
+            return;
+        }
+        System.out.println("Closest matches:");
+        for (ParticipantSearchIndex.Match m : matches) {
+            Participant p = m.getParticipant();
+            System.out.println("  " + p.getId() + "  " + p.getName() + "  " + p.getEmail());
+        }
+    }
 
-    private static void uploadCsv(List<Participant> participants) {
+    private static void uploadCsv(ParticipantRegistry participants) {
         System.out.print("Enter CSV path: ");
         String path = sc.nextLine().trim();
         try {
             List<Participant> loaded = CSVHandler.readParticipants(Paths.get(path));
             int added = 0;
             for (Participant p : loaded) {
-                if (ValidationUtil.idExists(participants, p.getId()) || ValidationUtil.emailExists(participants, p.getEmail())) {
-                    System.out.println("Skipping duplicate: " + p.getId() + " / " + p.getEmail());
-                } else {
-                    participants.add(p);
+                if (participants.add(p)) {
                     added++;
+                } else {
+                    System.out.println("Skipping duplicate: " + p.getId() + " / " + p.getEmail());
                 }
             }
+            persist();
             System.out.println("CSV import finished. Added " + added + " participants.");
         } catch (Exception e) {
             System.err.println("CSV import failed: " + e.getMessage());
         }
     }
 
-    private static void validateData(List<Participant> participants) {
+    private static void saveSnapshot(ParticipantRegistry participants) {
+        System.out.print("Snapshot path (default participants.snap): ");
+        String path = sc.nextLine().trim();
+        if (path.isEmpty()) path = "participants.snap";
+        try {
+            SnapshotHandler.writeSnapshot(Paths.get(path), ParticipantTable.of(participants.getAll()));
+            System.out.println("Saved " + participants.size() + " participants to " + path);
+        } catch (Exception e) {
+            System.err.println("Snapshot save failed: " + e.getMessage());
+        }
+    }
+
+    private static void loadSnapshot(ParticipantRegistry participants) {
+        System.out.print("Snapshot path (default participants.snap): ");
+        String path = sc.nextLine().trim();
+        if (path.isEmpty()) path = "participants.snap";
+        try {
+            long start = System.nanoTime();
+            ParticipantTable table = SnapshotHandler.readSnapshot(Paths.get(path));
+            int added = participants.addAll(table);
+            persist();
+            System.out.printf("Snapshot loaded in %d ms. Added %d of %d participants (duplicates skipped).%n",
+                    (System.nanoTime() - start) / 1_000_000, added, table.size());
+        } catch (Exception e) {
+            System.err.println("Snapshot load failed: " + e.getMessage());
+        }
+    }
+
+    private static void validateData(ParticipantRegistry participants) {
         System.out.println("\n--- Validation Report ---");
         boolean ok = true;
-        Set<String> ids = new HashSet<>();
-        Set<String> emails = new HashSet<>();
-        for (Participant p : participants) {
+        // the registry indexes reject duplicates; a lookup that resolves to a different
+        // participant means the index and the data have drifted apart
+        for (Participant p : participants.getAll()) {
             if (p.getId() == null || p.getId().isEmpty()) {
                 System.out.println("Missing ID for: " + p.getName());
                 ok = false;
-            } else if (ids.contains(p.getId())) {
+            } else if (participants.findById(p.getId()) != p) {
                 System.out.println("Duplicate ID: " + p.getId());
                 ok = false;
-            } else ids.add(p.getId());
+            }
 
             if (!ValidationUtil.isValidEmail(p.getEmail())) {
                 System.out.println("Invalid email for " + p.getId() + ": " + p.getEmail());
                 ok = false;
-            } else if (emails.contains(p.getEmail())) {
+            } else if (participants.findByEmail(p.getEmail()) != p) {
                 System.out.println("Duplicate email: " + p.getEmail());
                 ok = false;
-            } else emails.add(p.getEmail());
+            }
 
             if (!ValidationUtil.isValidSkill(p.getSkillRating())) {
                 System.out.println("Invalid skill for " + p.getId() + ": " + p.getSkillRating());
@@ -277,7 +478,7 @@ public class Main {
         System.out.println("Validation " + (ok ? "passed." : "failed. Please fix issues."));
     }
 
-    private static void runTeamFormation(List<Participant> participants) {
+    private static void runTeamFormation(ParticipantRegistry participants) {
         if (participants.isEmpty()) {
             System.out.println("No participants to form teams.");
             return;
@@ -288,25 +489,62 @@ public class Main {
         System.out.print("Enter max same-game-per-team (cap, default 2): ");
         String capS = sc.nextLine().trim();
         int cap = capS.isEmpty() ? 2 : parseIntOr(capS,2);
+        System.out.print("Formation mode: 1 = standard, 2 = skill-balanced, 3 = sharded for large pools, 4 = exact for small pools (default 1): ");
+        FormationMode mode = FormationMode.parse(sc.nextLine());
+        System.out.print(mode == FormationMode.EXACT
+                ? "Exact search time limit in ms (default " + MultiSeedFormation.DEFAULT_EXACT_MILLIS + "): "
+                : "Optimization time budget in ms per run (default 0 = skip): ");
+        String budgetS = sc.nextLine().trim();
+        long budgetMs = budgetS.isEmpty() ? 0 : parseIntOr(budgetS, 0);
+        System.out.print("Number of seeded runs K, best is kept (default 1): ");
+        String kS = sc.nextLine().trim();
+        int k = kS.isEmpty() ? 1 : Math.max(1, parseIntOr(kS, 1));
+        // blank repeats the last seed, so re-running on an unchanged pool is answered from the cache
+        System.out.print("Seed (blank = " + lastSeed + " as last time, r = random): ");
+        String seedS = sc.nextLine().trim();
+        long seed = seedS.isEmpty() ? lastSeed
+                : seedS.equalsIgnoreCase("r") ? System.nanoTime() : parseLongOr(seedS, lastSeed);
 
         lastTeamSize = teamSize;
         lastGameCap = cap;
-
-        ExecutorService exec = Executors.newSingleThreadExecutor();
-        final List<Participant> snapshot = new ArrayList<>(participants); // effectively final for lambda
-        Future<List<Team>> fut = exec.submit(() -> {
-            TeamBuilder builder = new TeamBuilder(snapshot, teamSize, cap);
-            return builder.buildTeams();
-        });
+        lastSeed = seed;
 
         try {
-            lastFormedTeams = fut.get();
-            System.out.println("Teams formed successfully. " + lastFormedTeams.size() + " teams.");
+            FormationCache.Key key = new FormationCache.Key(fingerprint, teamSize, cap, mode, k, budgetMs, seed);
+            MultiSeedFormation.Result best = formationCache.get(key, participants::findById);
+            boolean cached = best != null;
+            if (!cached) {
+                best = MultiSeedFormation.run(PoolFingerprint.canonicalOrder(participants.getAll()), teamSize, cap, k, seed, budgetMs, mode);
+                formationCache.put(key, best);
+            } else {
+                TeamBuilder.recordRates(best.getTeams(), teamSize);
+            }
+            lastFormedTeams = new ArrayList<>(best.getTeams());
+            maintainer = new TeamMaintainer(lastFormedTeams, teamSize, cap);
+            stats.teamsFormed(lastFormedTeams, teamSize, cap);
+            maintainer.setTeamListener(stats::teamChanged);
+            System.out.println("Teams formed successfully. " + lastFormedTeams.size() + " teams."
+                    + (cached ? " (same pool and settings as an earlier run: cached result)" : ""));
             for (Team t : lastFormedTeams) System.out.println(t);
+            int placed = 0;
+            for (Team t : lastFormedTeams) placed += t.size();
+            if (placed < participants.size()) {
+                System.out.println((participants.size() - placed) + " participant(s) could not be placed: every team with room is at the game cap for them.");
+            }
+            System.out.printf("Best of %d run(s): seed=%d score=%.2f (lower is better)%n", k, best.getSeed(), best.getScore());
+            if (mode == FormationMode.EXACT) {
+                if (participants.size() > ExactSolver.MAX_POOL) {
+                    System.out.println("Pool too large for exact mode (more than " + ExactSolver.MAX_POOL
+                            + " participants): the heuristic result is shown.");
+                } else {
+                    System.out.println(best.isOptimal() ? "Proven optimal: no assignment scores lower."
+                            : "Time limit reached before optimality was proven: best assignment found is shown.");
+                }
+            }
+            System.out.printf("Skill spread (strongest - weakest team average): %.2f%n", TeamBuilder.skillSpread(lastFormedTeams));
+            System.out.println("Metrics: " + Metrics.summaryJson());
         } catch (Exception e) {
             System.err.println("Team formation failed: " + e.getMessage());
-        } finally {
-            exec.shutdown();
         }
     }
 
@@ -323,7 +561,7 @@ public class Main {
             System.out.println("No teams to export.");
             return;
         }
-        System.out.print("Output CSV path (default formed_teams.csv): ");
+        System.out.print("Output CSV path (default formed_teams.csv, end with .gz to compress): ");
         String out = sc.nextLine().trim();
         if (out.isEmpty()) out = "formed_teams.csv";
         try {
@@ -334,21 +572,35 @@ public class Main {
         }
     }
 
-    private static void dashboard(List<Participant> participants) {
+    private static void dashboard(ParticipantRegistry participants) {
         System.out.println("\n--- Dashboard ---");
-        System.out.println("Participants: " + participants.size());
-        Map<String, Long> byGame = new HashMap<>();
-        Map<String, Long> byPersonality = new HashMap<>();
-        for (Participant p : participants) {
-            byGame.put(p.getGame(), byGame.getOrDefault(p.getGame(),0L)+1);
-            byPersonality.put(p.getPersonalityType(), byPersonality.getOrDefault(p.getPersonalityType(),0L)+1);
-        }
-        System.out.println("By Game: " + byGame);
-        System.out.println("By Personality: " + byPersonality);
-        System.out.println("Last formed teams: " + (lastFormedTeams==null?0:lastFormedTeams.size()));
+        System.out.println("Participants: " + stats.participantCount());
+        System.out.println("By Game: " + countsByName(stats.gameCounts(), GameType.CODES));
+        System.out.println("By Role: " + countsByName(stats.roleCounts(), RoleType.CODES));
+        System.out.println("By Personality: " + countsByName(stats.personalityCounts(), PersonalityType.CODES));
+        int[] skills = stats.skillHistogram();
+        StringBuilder hist = new StringBuilder();
+        for (int s = 1; s < skills.length; s++) hist.append(s).append('=').append(skills[s]).append(s + 1 < skills.length ? ", " : "");
+        System.out.println("Skill histogram: " + hist);
+        System.out.println("Last formed teams: " + stats.teamCount());
+        if (stats.teamCount() > 0) {
+            System.out.printf("Team skill spread: %.2f%n", stats.skillSpread());
+            System.out.println("Teams over game cap: " + stats.overCapTeams()
+                    + ", under 3 roles: " + stats.nonDiverseTeams()
+                    + ", off personality mix: " + stats.personalityMixMisses()
+                    + ", undersized: " + stats.undersizedTeams());
+        }
     }
 
     // ---------------- Helpers ----------------
+    private static Map<String, Integer> countsByName(int[] counts, CodeDictionary codes) {
+        Map<String, Integer> named = new LinkedHashMap<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) named.put(codes.value(c), counts[c]);
+        }
+        return named;
+    }
+
     private static String promptNonEmpty(String prompt) {
         while (true) {
             System.out.print(prompt);
@@ -388,6 +640,10 @@ public class Main {
         try { return Integer.parseInt(s); } catch (Exception e) { return def; }
     }
 
+    private static long parseLongOr(String s, long def) {
+        try { return Long.parseLong(s); } catch (Exception e) { return def; }
+    }
+
     private static int promptParseInt(String s, int def) {
         try { return Integer.parseInt(s); } catch (Exception e) { return def; }
     }
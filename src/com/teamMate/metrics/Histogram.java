@@ -0,0 +1,52 @@
+package com.teamMate.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative longs (usually nanoseconds) in power-of-two buckets:
+ * bucket b holds values in [2^(b-1), 2^b). Percentiles are reported as the bucket's upper
+ * bound, i.e. within a factor of two, which is enough to tell a slow phase from a fast one.
+ */
+public class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v)));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long count() { return count.sum(); }
+    public long sum() { return sum.sum(); }
+    public long max() { return max.get(); }
+
+    /** Upper bound of the bucket holding the q-th quantile (0 < q <= 1); 0 when empty. */
+    public long percentile(double q) {
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += buckets.get(b);
+            if (seen >= rank) return b == 0 ? 0 : Math.min(max(), (1L << b) - 1);
+        }
+        return max();
+    }
+
+    void reset() {
+        for (int b = 0; b < BUCKETS; b++) buckets.set(b, 0);
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
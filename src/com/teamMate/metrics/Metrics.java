@@ -0,0 +1,167 @@
+package com.teamMate.metrics;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters, gauges and timers for formation and ingestion.
+ * Everything is lock-free (LongAdder / atomic histogram buckets), so it stays on in production:
+ * hot loops count into locals and publish once per phase, timers cost two nanoTime calls.
+ *
+ * Names are dotted, e.g. "formation.fill" (timer), "csv.parse_failures" (counter),
+ * "formation.role_diversity_rate" (gauge). {@link #summaryJson()} gives a machine-readable
+ * snapshot; {@link #registerMBean()} exposes the same data over JMX.
+ */
+public class Metrics {
+
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Double> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> timers = new ConcurrentHashMap<>();
+    private static volatile boolean registered;
+
+    private Metrics() {}
+
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    public static void add(String name, long delta) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    public static void gauge(String name, double value) {
+        gauges.put(name, value);
+    }
+
+    public static void recordNanos(String name, long nanos) {
+        timer(name).record(nanos);
+    }
+
+    /** Records the time since {@code startNanos} and returns the current nanoTime for chaining phases. */
+    public static long lap(String name, long startNanos) {
+        long now = System.nanoTime();
+        recordNanos(name, now - startNanos);
+        return now;
+    }
+
+    public static long counter(String name) {
+        LongAdder c = counters.get(name);
+        return c == null ? 0 : c.sum();
+    }
+
+    public static Double gaugeValue(String name) {
+        return gauges.get(name);
+    }
+
+    public static Histogram timer(String name) {
+        return timers.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    public static void reset() {
+        counters.values().forEach(LongAdder::reset);
+        gauges.clear();
+        timers.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * One-line JSON: {"counters":{...},"gauges":{...},"timers":{"name":{"count":..,"totalMs":..,
+     * "p50Ms":..,"p99Ms":..,"maxMs":..}}}. Keys are sorted so runs diff cleanly.
+     */
+    public static String summaryJson() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(counters).entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            key(sb, e.getKey()).append(e.getValue().sum());
+        }
+        sb.append("},\"gauges\":{");
+        first = true;
+        for (Map.Entry<String, Double> e : new TreeMap<>(gauges).entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            key(sb, e.getKey()).append(number(e.getValue()));
+        }
+        sb.append("},\"timers\":{");
+        first = true;
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(timers).entrySet()) {
+            Histogram h = e.getValue();
+            if (h.count() == 0) continue;
+            if (!first) sb.append(',');
+            first = false;
+            key(sb, e.getKey()).append("{\"count\":").append(h.count())
+                    .append(",\"totalMs\":").append(number(millis(h.sum())))
+                    .append(",\"p50Ms\":").append(number(millis(h.percentile(0.5))))
+                    .append(",\"p99Ms\":").append(number(millis(h.percentile(0.99))))
+                    .append(",\"maxMs\":").append(number(millis(h.max()))).append('}');
+        }
+        return sb.append("}}").toString();
+    }
+
+    /** Registers the MBean once; failures (e.g. no platform server) only disable JMX. */
+    public static synchronized void registerMBean() {
+        if (registered) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new Bean(), new ObjectName("com.teamMate:type=Metrics"));
+            registered = true;
+        } catch (Exception e) {
+            System.err.println("Metrics MBean not registered: " + e.getMessage());
+        }
+    }
+
+    private static StringBuilder key(StringBuilder sb, String name) {
+        return sb.append('"').append(name.replace("\\", "\\\\").replace("\"", "\\\"")).append("\":");
+    }
+
+    private static String number(double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) return "null";
+        return String.format(Locale.ROOT, "%.3f", v);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Bean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            Map<String, Long> m = new TreeMap<>();
+            counters.forEach((k, v) -> m.put(k, v.sum()));
+            return m;
+        }
+
+        @Override
+        public Map<String, Double> getGauges() {
+            return new TreeMap<>(gauges);
+        }
+
+        @Override
+        public Map<String, Double> getTimerTotalMillis() {
+            Map<String, Double> m = new TreeMap<>();
+            timers.forEach((k, h) -> m.put(k, millis(h.sum())));
+            return m;
+        }
+
+        @Override
+        public Map<String, Double> getTimerP99Millis() {
+            Map<String, Double> m = new TreeMap<>();
+            timers.forEach((k, h) -> m.put(k, millis(h.percentile(0.99))));
+            return m;
+        }
+
+        @Override
+        public String getSummaryJson() {
+            return summaryJson();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
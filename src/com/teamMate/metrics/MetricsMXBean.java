@@ -0,0 +1,15 @@
+package com.teamMate.metrics;
+
+import java.util.Map;
+
+/** JMX view of {@link Metrics}, registered as com.teamMate:type=Metrics. */
+public interface MetricsMXBean {
+    Map<String, Long> getCounters();
+    Map<String, Double> getGauges();
+    /** Total milliseconds recorded per timer. */
+    Map<String, Double> getTimerTotalMillis();
+    /** 99th percentile per timer in milliseconds (power-of-two bucket bound). */
+    Map<String, Double> getTimerP99Millis();
+    String getSummaryJson();
+    void reset();
+}
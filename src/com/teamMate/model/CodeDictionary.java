@@ -0,0 +1,80 @@
+package com.teamMate.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Case-insensitive string -> small int code dictionary.
+ * The first spelling seen for a value is kept as its display form.
+ * A bounded dictionary stops minting codes at its limit and folds further unseen values
+ * into a fallback code, so free-text input cannot grow the per-code arrays (Team counters,
+ * ParticipantTable columns) without bound. {@link #folds} tells such values apart; callers
+ * that store codes keep their text alongside (see ParticipantTable).
+ */
+public class CodeDictionary {
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    // display spellings, looked up as-is first so the common exact spelling skips toLowerCase
+    private final ConcurrentHashMap<String, Integer> exact = new ConcurrentHashMap<>();
+    private final int limit;
+    private final String fallback;
+    // grown geometrically; slots at or past size are unused
+    private volatile String[] values = new String[8];
+    private volatile int size;
+
+    public CodeDictionary(String... seed) {
+        this(Integer.MAX_VALUE, null, seed);
+    }
+
+    /** At most {@code limit} codes; unseen values past that map to {@code fallback}'s code. */
+    public CodeDictionary(int limit, String fallback, String... seed) {
+        this.limit = limit;
+        this.fallback = fallback;
+        for (String s : seed) code(s);
+        if (fallback != null) code(fallback);
+    }
+
+    /** Returns the code for the value, assigning the next free code if it is unseen. */
+    public final int code(String value) {
+        if (value != null) {
+            Integer hit = exact.get(value);
+            if (hit != null) return hit;
+        }
+        String key = value == null ? "" : value.toLowerCase();
+        Integer c = codes.get(key);
+        if (c != null) return c;
+        synchronized (this) {
+            c = codes.get(key);
+            if (c != null) return c;
+            int next = size;
+            if (next >= limit && fallback != null) return codes.get(fallback.toLowerCase());
+            String[] v = values;
+            if (next == v.length) v = Arrays.copyOf(v, next * 2);
+            v[next] = value == null ? "" : value;
+            values = v;
+            size = next + 1;
+            codes.put(key, next);
+            exact.put(v[next], next);
+            return next;
+        }
+    }
+
+    /** True if {@code value} has code {@code code} only because it was folded into the fallback. */
+    public boolean folds(int code, String value) {
+        return value != null && !value(code).equalsIgnoreCase(value);
+    }
+
+    /** Returns the code for the value, or -1 if it has never been seen. */
+    public int find(String value) {
+        Integer c = codes.get(value == null ? "" : value.toLowerCase());
+        return c == null ? -1 : c;
+    }
+
+    public String value(int code) {
+        if (code >= size) throw new ArrayIndexOutOfBoundsException(code);
+        return values[code];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -1,5 +1,7 @@
 package com.teamMate.model;
 
+import java.util.List;
+
 public class GameType {
     public static final String VALORANT = "Valorant";
     public static final String DOTA = "DOTA 2";
@@ -9,4 +11,12 @@ public class GameType {
     public static final String CHESS = "Chess";
     public static final String CS_GO = "CS:GO";
     public static final String OTHER = "Other";
+
+    // the choices offered by the survey, in display order
+    public static final List<String> VALUES = List.of(VALORANT, DOTA, FIFA, BASKETBALL, BADMINTON, CS_GO, CHESS, OTHER);
+
+    // codes shared by Participant and ParticipantTable; unseen values get appended up to
+    // MAX_CODES, later ones are counted as Other
+    public static final int MAX_CODES = 256;
+    public static final CodeDictionary CODES = new CodeDictionary(MAX_CODES, OTHER, VALORANT, DOTA, FIFA, BASKETBALL, BADMINTON, CHESS, CS_GO, OTHER);
 }
@@ -13,6 +13,11 @@ public class Participant {
     private int personalityScore;   // 0-100
     private String personalityType; // Leader / Balanced / Thinker / Unknown
 
+    // dictionary codes for game/role/personality, kept in step with the setters
+    private int gameCode;
+    private int roleCode;
+    private int personalityCode;
+
     public Participant(String id, String name, String email,
                        String game, String role, int skillRating,
                        int personalityScore, String personalityType) {
@@ -20,10 +25,13 @@ public class Participant {
         this.name = name;
         this.email = email;
         this.game = game;
+        this.gameCode = GameType.CODES.code(game);
         this.role = role;
+        this.roleCode = RoleType.CODES.code(role);
         this.skillRating = skillRating;
         this.personalityScore = personalityScore;
         this.personalityType = personalityType;
+        this.personalityCode = PersonalityType.CODES.code(personalityType);
     }
 
     // Getters & setters (needed for edit)
@@ -37,10 +45,10 @@ public class Participant {
     public void setEmail(String email) { this.email = email; }
 
     public String getGame() { return game; }
-    public void setGame(String game) { this.game = game; }
+    public void setGame(String game) { this.game = game; this.gameCode = GameType.CODES.code(game); }
 
     public String getRole() { return role; }
-    public void setRole(String role) { this.role = role; }
+    public void setRole(String role) { this.role = role; this.roleCode = RoleType.CODES.code(role); }
 
     public int getSkillRating() { return skillRating; }
     public void setSkillRating(int skillRating) { this.skillRating = skillRating; }
@@ -49,7 +57,14 @@ public class Participant {
     public void setPersonalityScore(int personalityScore) { this.personalityScore = personalityScore; }
 
     public String getPersonalityType() { return personalityType; }
-    public void setPersonalityType(String personalityType) { this.personalityType = personalityType; }
+    public void setPersonalityType(String personalityType) {
+        this.personalityType = personalityType;
+        this.personalityCode = PersonalityType.CODES.code(personalityType);
+    }
+
+    public int getGameCode() { return gameCode; }
+    public int getRoleCode() { return roleCode; }
+    public int getPersonalityCode() { return personalityCode; }
 
     @Override
     public String toString() {
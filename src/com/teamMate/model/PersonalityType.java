@@ -0,0 +1,16 @@
+package com.teamMate.model;
+
+public class PersonalityType {
+    public static final String LEADER = "Leader";
+    public static final String BALANCED = "Balanced";
+    public static final String THINKER = "Thinker";
+    public static final String UNKNOWN = "Unknown";
+
+    // free-text types past MAX_CODES are counted as Unknown
+    public static final int MAX_CODES = 64;
+    public static final CodeDictionary CODES = new CodeDictionary(MAX_CODES, UNKNOWN, LEADER, BALANCED, THINKER, UNKNOWN);
+    public static final int LEADER_CODE = CODES.code(LEADER);
+    public static final int BALANCED_CODE = CODES.code(BALANCED);
+    public static final int THINKER_CODE = CODES.code(THINKER);
+    public static final int UNKNOWN_CODE = CODES.code(UNKNOWN);
+}
@@ -1,5 +1,7 @@
 package com.teamMate.model;
 
+import java.util.List;
+
 public class RoleType {
     public static final String STRATEGIST = "Strategist";
     public static final String ATTACKER = "Attacker";
@@ -7,4 +9,12 @@ public class RoleType {
     public static final String SUPPORTER = "Supporter";
     public static final String COORDINATOR = "Coordinator";
     public static final String OTHER = "Other";
+
+    // the choices offered by the survey, in display order
+    public static final List<String> VALUES = List.of(STRATEGIST, ATTACKER, DEFENDER, SUPPORTER, COORDINATOR, OTHER);
+
+    // codes shared by Participant and ParticipantTable; unseen values get appended up to
+    // MAX_CODES, later ones are counted as Other
+    public static final int MAX_CODES = 256;
+    public static final CodeDictionary CODES = new CodeDictionary(MAX_CODES, OTHER, STRATEGIST, ATTACKER, DEFENDER, SUPPORTER, COORDINATOR, OTHER);
 }
@@ -1,5 +1,6 @@
 package com.teamMate.util;
 
+import com.teamMate.core.ParticipantRegistry;
 import com.teamMate.model.Participant;
 
 import java.util.List;
@@ -24,4 +25,13 @@ public class ValidationUtil {
     public static boolean emailExists(List<Participant> list, String email) {
         return list.stream().anyMatch(p -> p.getEmail().equalsIgnoreCase(email));
     }
+
+    // O(1) variants backed by the registry indexes
+    public static boolean idExists(ParticipantRegistry registry, String id) {
+        return registry.containsId(id);
+    }
+
+    public static boolean emailExists(ParticipantRegistry registry, String email) {
+        return registry.containsEmail(email);
+    }
 }
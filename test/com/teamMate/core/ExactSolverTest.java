@@ -0,0 +1,122 @@
+package com.teamMate.core;
+
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactSolverTest {
+
+    private static final String[] GAMES = {GameType.VALORANT, GameType.CHESS, GameType.FIFA};
+    private static final String[] ROLES = {
+            RoleType.STRATEGIST, RoleType.ATTACKER, RoleType.DEFENDER, RoleType.SUPPORTER, RoleType.COORDINATOR};
+    private static final String[] PERSONALITIES = {PersonalityType.LEADER, PersonalityType.BALANCED, PersonalityType.THINKER};
+
+    // few games so the cap binds, skewed roles so role coverage is not free
+    private static List<Participant> pool(int n, long seed) {
+        Random rnd = new Random(seed);
+        List<Participant> pool = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            pool.add(new Participant("P" + i, "Name " + i, "p" + i + "@example.com",
+                    GAMES[rnd.nextInt(GAMES.length)], ROLES[Math.min(rnd.nextInt(8), ROLES.length - 1)],
+                    1 + rnd.nextInt(10), 50, PERSONALITIES[rnd.nextInt(PERSONALITIES.length)]));
+        }
+        return pool;
+    }
+
+    /** Lowest score over every split into ceil(n / teamSize) non-empty teams of at most teamSize. */
+    private static double bruteForce(List<Participant> pool, int teamSize, int cap) {
+        int teams = (pool.size() + teamSize - 1) / teamSize;
+        List<Team> split = new ArrayList<>();
+        for (int t = 0; t < teams; t++) split.add(new Team(t + 1));
+        return enumerate(pool, 0, split, 0, teamSize, cap);
+    }
+
+    // teams are interchangeable: participant i may open at most the next empty team
+    private static double enumerate(List<Participant> pool, int i, List<Team> split, int opened, int teamSize, int cap) {
+        if (i == pool.size()) {
+            return opened == split.size() ? TeamOptimizer.evaluate(split, cap) : Double.POSITIVE_INFINITY;
+        }
+        // not enough participants left to fill the teams still empty
+        if (pool.size() - i < split.size() - opened) return Double.POSITIVE_INFINITY;
+        double best = Double.POSITIVE_INFINITY;
+        Participant p = pool.get(i);
+        for (int t = 0; t <= opened && t < split.size(); t++) {
+            Team team = split.get(t);
+            if (team.size() >= teamSize) continue;
+            team.addMember(p);
+            best = Math.min(best, enumerate(pool, i + 1, split, Math.max(opened, t + 1), teamSize, cap));
+            team.removeMember(p);
+        }
+        return best;
+    }
+
+    private static void assertPartition(List<Participant> pool, List<Team> teams, int teamSize) {
+        assertEquals((pool.size() + teamSize - 1) / teamSize, teams.size());
+        Set<Participant> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Team t : teams) {
+            assertTrue(t.size() > 0 && t.size() <= teamSize, "team size " + t.size());
+            for (Participant p : t.getMembers()) assertTrue(seen.add(p), p.getId() + " placed twice");
+        }
+        assertEquals(pool.size(), seen.size());
+    }
+
+    @Test
+    void matchesBruteForceOnSmallPools() {
+        int[][] cases = { // n, teamSize, cap
+                {10, 4, 1}, {10, 4, 2}, {11, 4, 2}, {11, 3, 1}, {12, 4, 2}, {12, 3, 2}, {12, 4, 1}};
+        for (int[] c : cases) {
+            for (long seed = 1; seed <= 3; seed++) {
+                List<Participant> pool = pool(c[0], seed * 31 + c[0]);
+                double expected = bruteForce(pool, c[1], c[2]);
+                ExactSolver solver = new ExactSolver(pool, c[1], c[2]);
+                List<Team> teams = solver.solve(null, 60_000);
+                String where = Arrays.toString(c) + " seed " + seed;
+                assertTrue(solver.isOptimal(), where);
+                assertPartition(pool, teams, c[1]);
+                assertEquals(expected, solver.getScore(), 1e-9, where);
+                assertEquals(expected, TeamOptimizer.evaluate(teams, c[2]), 1e-9, where);
+            }
+        }
+    }
+
+    @Test
+    void heuristicIncumbentDoesNotChangeTheOptimum() {
+        List<Participant> pool = pool(12, 7);
+        double expected = bruteForce(pool, 4, 2);
+        List<Team> incumbent = new TeamBuilder(pool, 4, 2, 7).buildTeams();
+        double incumbentScore = TeamOptimizer.evaluate(incumbent, 2);
+        ExactSolver solver = new ExactSolver(pool, 4, 2);
+        List<Team> teams = solver.solve(incumbent, 60_000);
+        assertTrue(solver.isOptimal());
+        assertEquals(expected, solver.getScore(), 1e-9);
+        assertTrue(solver.getScore() <= incumbentScore + 1e-9);
+        assertPartition(pool, teams, 4);
+    }
+
+    @Test
+    void poolsOverMaxPoolReturnTheIncumbentUnsearched() {
+        List<Participant> pool = pool(ExactSolver.MAX_POOL + 1, 3);
+        List<Team> incumbent = new TeamBuilder(pool, 5, 2, 3).buildTeams();
+        ExactSolver solver = new ExactSolver(pool, 5, 2);
+        assertSame(incumbent, solver.solve(incumbent, 60_000));
+        assertFalse(solver.isOptimal());
+        assertEquals(TeamOptimizer.evaluate(incumbent, 2), solver.getScore(), 1e-9);
+        assertEquals(0, solver.getNodes());
+
+        assertNull(solver.solve(null, 60_000));
+        assertFalse(solver.isOptimal());
+    }
+
+    @Test
+    void emptyPoolIsTriviallyOptimal() {
+        ExactSolver solver = new ExactSolver(List.of(), 4, 2);
+        assertTrue(solver.solve(List.of(), 1_000).isEmpty());
+        assertTrue(solver.isOptimal());
+    }
+}
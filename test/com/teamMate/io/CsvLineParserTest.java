@@ -0,0 +1,165 @@
+package com.teamMate.io;
+
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvLineParserTest {
+
+    private final CsvLineParser parser = new CsvLineParser();
+
+    // the byte[] path is what the file readers use; String rows go through parse(String)
+    private Participant parseBytes(String line) {
+        byte[] b = line.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(b, b.length);
+    }
+
+    @Test
+    void quotedFieldKeepsCommas() {
+        Participant p = parser.parse("P1,\"Doe, Jane\",jane@example.com,Chess,7,Attacker,80,Balanced");
+        assertEquals("Doe, Jane", p.getName());
+        assertEquals("jane@example.com", p.getEmail());
+        assertEquals(GameType.CHESS, p.getGame());
+        assertEquals(7, p.getSkillRating());
+    }
+
+    @Test
+    void doubledQuoteIsALiteralQuote() {
+        Participant p = parser.parse("P1,\"say \"\"hi\"\", then, go\",a@b.c,Chess,7,Attacker,80,Balanced");
+        assertEquals("say \"hi\", then, go", p.getName());
+    }
+
+    @Test
+    void textAfterClosingQuoteIsKeptAndTrailingBlanksDropped() {
+        assertEquals("abcd", parser.parse("P1,\"ab\"cd,a@b.c,Chess,7,Attacker,80,Balanced").getName());
+        assertEquals("ab x", parser.parse("P1,  \"ab\" x  ,a@b.c,Chess,7,Attacker,80,Balanced").getName());
+        assertEquals("ab", parser.parse("P1,\"ab\"   ,a@b.c,Chess,7,Attacker,80,Balanced").getName());
+    }
+
+    @Test
+    void unquotedFieldsAreTrimmed() {
+        Participant p = parser.parse("  P1 , Jane ,  a@b.c,  chess  , 7 ,attacker , 80 , Balanced ");
+        assertEquals("P1", p.getId());
+        assertEquals("Jane", p.getName());
+        assertEquals(GameType.CHESS, p.getGame());
+        assertEquals(RoleType.ATTACKER, p.getRole());
+        assertEquals(PersonalityType.BALANCED, p.getPersonalityType());
+    }
+
+    @Test
+    void blankGameAndRoleAreOther() {
+        Participant p = parser.parse("P1,Jane,a@b.c,,7,  ,80,Balanced");
+        assertEquals(GameType.OTHER, p.getGame());
+        assertEquals(RoleType.OTHER, p.getRole());
+        assertEquals(RoleType.CODES.code(RoleType.OTHER), p.getRoleCode());
+    }
+
+    @Test
+    void blankPersonalityTypeIsClassifiedFromTheScore() {
+        assertEquals(PersonalityType.LEADER, parser.parse("P1,Jane,a@b.c,Chess,7,Attacker,95,").getPersonalityType());
+        assertEquals(PersonalityType.THINKER, parser.parse("P1,Jane,a@b.c,Chess,7,Attacker,55,").getPersonalityType());
+    }
+
+    @Test
+    void nonAsciiRowsAreDecoded() {
+        Participant p = parseBytes("P1,Zoë Łukasz,zoë@example.com,Valorant ✓,7,Défender,80,Balanced");
+        assertEquals("Zoë Łukasz", p.getName());
+        assertEquals("zoë@example.com", p.getEmail());
+        assertEquals(GameType.VALORANT, p.getGame());
+        // "défender" does not contain "defend", so it stays free text
+        assertEquals("Défender", p.getRole());
+    }
+
+    @Test
+    void asciiAndStringPathsAgree() {
+        String line = "P7,\"O'Neil, \"\"Sam\"\"\",sam@example.com,DOTA 2,11,support,101,";
+        Participant a = parseBytes(line);
+        Participant b = parser.parse(line);
+        assertEquals(b.toString(), a.toString());
+    }
+
+    @Test
+    void numbersAreClampedOrDefaulted() {
+        // skill: default 5, range 1..10; score: default 50, range 0..100
+        assertEquals(10, skill("15"));
+        assertEquals(1, skill("-5"));
+        assertEquals(7, skill("+7"));
+        assertEquals(5, skill("abc"));
+        assertEquals(5, skill(""));
+        assertEquals(5, skill("-"));
+        assertEquals(5, skill("2147483648"));
+        assertEquals(10, skill("2147483647"));
+        assertEquals(1, skill("-2147483648"));
+        assertEquals(5, skill("99999999999999999999"));
+        assertEquals(50, parser.parse("P1,Jane,a@b.c,Chess,7,Attacker,99999999999,Balanced").getPersonalityScore());
+        assertEquals(0, parser.parse("P1,Jane,a@b.c,Chess,7,Attacker,-3,Balanced").getPersonalityScore());
+    }
+
+    private int skill(String field) {
+        return parser.parse("P1,Jane,a@b.c,Chess," + field + ",Attacker,80,Balanced").getSkillRating();
+    }
+
+    @Test
+    void gameAliasesAndSubstrings() {
+        assertEquals(GameType.DOTA, game("DOTA 2"));
+        assertEquals(GameType.DOTA, game("dota2"));
+        assertEquals(GameType.CS_GO, game("CS:GO"));
+        assertEquals(GameType.CS_GO, game("cs2"));
+        assertEquals(GameType.VALORANT, game("Valorant Pro League"));
+        assertEquals(GameType.BASKETBALL, game("street basketball"));
+        assertEquals(GameType.FIFA, game("EA FIFA 24"));
+        // rule order: "valor" is tried before the loose "cs"
+        assertEquals(GameType.VALORANT, game("valorant cs"));
+        assertEquals(GameType.CS_GO, game("Counter-Strike (cs)"));
+        assertEquals("Hockey", game("Hockey"));
+    }
+
+    @Test
+    void roleAliasesAndSubstrings() {
+        assertEquals(RoleType.SUPPORTER, role("support"));
+        assertEquals(RoleType.SUPPORTER, role("Team Supporter"));
+        assertEquals(RoleType.STRATEGIST, role("STRATEGY lead"));
+        assertEquals(RoleType.COORDINATOR, role("coordination"));
+        assertEquals(RoleType.DEFENDER, role("defending"));
+        assertEquals(RoleType.OTHER, role("Other"));
+        assertEquals("Captain", role("Captain"));
+    }
+
+    private String game(String field) {
+        return parser.parse("P1,Jane,a@b.c," + field + ",7,Attacker,80,Balanced").getGame();
+    }
+
+    private String role(String field) {
+        return parser.parse("P1,Jane,a@b.c,Chess,7," + field + ",80,Balanced").getRole();
+    }
+
+    @Test
+    void canonicalGameUsesTheSameRules() {
+        assertEquals(GameType.DOTA, CsvLineParser.canonicalGame("  dota 2 "));
+        assertEquals(GameType.CS_GO, CsvLineParser.canonicalGame("CS2"));
+        assertEquals(GameType.OTHER, CsvLineParser.canonicalGame("   "));
+        assertEquals(GameType.OTHER, CsvLineParser.canonicalGame(null));
+        assertEquals("Hockey", CsvLineParser.canonicalGame(" Hockey "));
+    }
+
+    @Test
+    void elevenColumnRowsScoreTheSurvey() {
+        Participant p = parser.parse("P1,Jane,a@b.c,Chess,7,Attacker,5,5,5,5,5");
+        assertEquals(100, p.getPersonalityScore());
+        assertEquals(PersonalityType.LEADER, p.getPersonalityType());
+        // answers outside 1..5 are clamped
+        assertEquals(100, parser.parse("P1,Jane,a@b.c,Chess,7,Attacker,9,9,9,9,9").getPersonalityScore());
+    }
+
+    @Test
+    void tooFewColumnsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("P1,Jane,a@b.c,Chess,7,Attacker,80"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.teamMate.io;
+
+import com.teamMate.core.ParticipantRegistry;
+import com.teamMate.metrics.Metrics;
+import com.teamMate.model.GameType;
+import com.teamMate.model.Participant;
+import com.teamMate.model.PersonalityType;
+import com.teamMate.model.RoleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private static Participant participant(int i) {
+        return new Participant("P" + i, "Name " + i, "p" + i + "@example.com",
+                GameType.CHESS, RoleType.ATTACKER, 1 + i % 10, 50, PersonalityType.THINKER);
+    }
+
+    // id -> full text, so edits are compared too
+    private static Map<String, String> contents(ParticipantRegistry r) {
+        Map<String, String> m = new TreeMap<>();
+        for (Participant p : r.getAll()) m.put(p.getId(), p.toString());
+        return m;
+    }
+
+    private static Map<String, String> reopen(Path dir) throws IOException {
+        ParticipantRegistry r = new ParticipantRegistry();
+        try (ParticipantJournal j = ParticipantJournal.open(dir, r)) {
+            return contents(r);
+        }
+    }
+
+    private static List<Path> files(Path dir, String suffix) throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(f -> f.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    @Test
+    void replaysAddsEditsAndRemovals() throws IOException {
+        ParticipantRegistry r = new ParticipantRegistry();
+        try (ParticipantJournal j = ParticipantJournal.open(dir, r)) {
+            for (int i = 0; i < 50; i++) r.add(participant(i));
+            Participant p = r.findById("P7");
+            r.update(p, () -> p.setSkillRating(9));
+            r.changeEmail(r.findById("P8"), "moved@example.com");
+            r.remove(r.findById("P9"));
+            j.sync();
+        }
+        Map<String, String> expected = contents(r);
+        assertEquals(49, expected.size());
+        assertEquals(expected, reopen(dir));
+    }
+
+    @Test
+    void tornTailIsCutOffAndLaterWritesSurvive() throws IOException {
+        ParticipantRegistry r = new ParticipantRegistry();
+        try (ParticipantJournal j = ParticipantJournal.open(dir, r)) {
+            for (int i = 0; i < 20; i++) r.add(participant(i));
+            j.sync();
+        }
+        Map<String, String> expected = contents(r);
+        expected.remove("P19");
+        // a crash in the middle of writing the last record
+        Path log = files(dir, ".log").get(0);
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 5);
+        }
+        long torn = Files.size(log);
+
+        ParticipantRegistry recovered = new ParticipantRegistry();
+        try (ParticipantJournal j = ParticipantJournal.open(dir, recovered)) {
+            assertEquals(expected, contents(recovered));
+            assertTrue(Files.size(log) < torn, "torn record is truncated away");
+            recovered.add(participant(100));
+            j.sync();
+        }
+        expected.put("P100", participant(100).toString());
+        assertEquals(expected, reopen(dir));
+    }
+
+    @Test
+    void garbageAfterTheLastRecordIsIgnored() throws IOException {
+        ParticipantRegistry r = new ParticipantRegistry();
+        try (ParticipantJournal j = ParticipantJournal.open(dir, r)) {
+            for (int i = 0; i < 20; i++) r.add(participant(i));
+        }
+        Path log = files(dir, ".log").get(0);
+        // a length field far past MAX_RECORD_BYTES, then a record whose checksum is wrong
+        Files.write(log, new byte[]{0x7f, 0, 0, 0, 1, 2, 3, 4, 0, 0, 0, 4, 9, 9, 9, 9, 1, 2, 3, 4}, StandardOpenOption.APPEND);
+        assertEquals(contents(r), reopen(dir));
+    }
+
+    @Test
+    void corruptRecordStopsTheReplay() throws IOException {
+        ParticipantRegistry r = new ParticipantRegistry();
+        long firstRecordEnd;
+        Path log;
+        try (ParticipantJournal j = ParticipantJournal.open(dir, r)) {
+            r.add(participant(0));
+            j.sync();
+            log = files(dir, ".log").get(0);
+            firstRecordEnd = Files.size(log);
+            for (int i = 1; i < 10; i++) r.add(participant(i));
+        }
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            ch.write(java.nio.ByteBuffer.wrap(new byte[]{(byte) 0xff}), firstRecordEnd + 20);
+        }
+        assertEquals(Set.of("P0"), reopen(dir).keySet());
+    }
+
+    @Test
+    void recoversFromSnapshotAfterCompaction() throws Exception {
+        int n = 1000;
+        ParticipantRegistry r = new ParticipantRegistry();
+        try (ParticipantJournal j = ParticipantJournal.open(dir, r)) {
+            for (int i = 0; i < n; i++) r.add(participant(i));
+            // enough edits to pass MIN_COMPACT_RECORDS
+            for (int round = 0; round < ParticipantJournal.MIN_COMPACT_RECORDS / n; round++) {
+                for (Participant p : r.getAll()) {
+                    int skill = 1 + (p.getSkillRating() + round) % 10;
+                    r.update(p, () -> p.setSkillRating(skill));
+                }
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (files(dir, ".snap").isEmpty() || files(dir, ".log").size() > 1) {
+                assertTrue(System.nanoTime() < deadline, "compaction did not finish");
+                Thread.sleep(20);
+            }
+            // changes after the snapshot come from the new segment
+            r.remove(r.findById("P3"));
+            Participant p = r.findById("P4");
+            r.update(p, () -> p.setName("Renamed"));
+            r.add(participant(n));
+            j.sync();
+        }
+        assertEquals(1, files(dir, ".snap").size());
+        Map<String, String> expected = contents(r);
+        assertEquals(n, expected.size());
+        assertEquals(expected, reopen(dir));
+    }
+
+    @Test
+    void concurrentSyncsShareFlushesAndAreDurable() throws Exception {
+        int threads = 8, perThread = 200;
+        long recordsBefore = Metrics.counter("journal.records");
+        ParticipantRegistry r = new ParticipantRegistry();
+        ParticipantJournal j = ParticipantJournal.open(dir, r);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * perThread;
+                done.add(pool.submit(() -> {
+                    for (int i = base; i < base + perThread; i++) {
+                        assertTrue(r.add(participant(i)));
+                        j.sync();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) f.get(1, TimeUnit.MINUTES);
+
+            // every sync has returned, so a crash now (no close) must lose nothing
+            Path copy = Files.createDirectory(dir.resolve("crash-copy"));
+            for (Path f : files(dir, ".log")) Files.copy(f, copy.resolve(f.getFileName()));
+            assertEquals(threads * perThread, reopen(copy).size());
+            assertEquals(threads * perThread, Metrics.counter("journal.records") - recordsBefore);
+        } finally {
+            pool.shutdown();
+            j.close();
+        }
+    }
+}